@@ -0,0 +1,64 @@
+package io.github.contractormicroservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Рассылка и разбор сообщений об инвалидации локальных кэшей через Redis pub/sub
+ */
+@Slf4j
+public class CacheInvalidationBus {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Сообщает остальным экземплярам, что запись кэша изменилась
+     * @param key - ключ записи или null для очистки всего кэша
+     */
+    public void publish(String cacheName, String key) {
+        try {
+            String message = objectMapper.writeValueAsString(new CacheInvalidationMessage(instanceId, cacheName, key));
+            redisTemplate.convertAndSend(channel, message);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Локальные кэши других экземпляров в этом случае устареют не дольше, чем на TTL
+            log.error("Не удалось отправить инвалидацию кэша {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * Разбирает полученное сообщение. Собственные сообщения экземпляра пропускаются
+     */
+    public Optional<CacheInvalidationMessage> decode(Message message) {
+        try {
+            CacheInvalidationMessage invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+            if (instanceId.equals(invalidation.origin())) {
+                return Optional.empty();
+            }
+            return Optional.of(invalidation);
+        } catch (IOException e) {
+            log.error("Некорректное сообщение инвалидации кэша: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+}
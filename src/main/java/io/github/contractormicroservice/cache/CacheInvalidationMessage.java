@@ -0,0 +1,10 @@
+package io.github.contractormicroservice.cache;
+
+/**
+ * Сообщение об инвалидации локального кэша, рассылаемое через Redis pub/sub
+ * @param origin - идентификатор экземпляра, изменившего кэш (свои сообщения экземпляр пропускает)
+ * @param cacheName - имя кэша
+ * @param key - ключ записи; null означает очистку всего кэша
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+}
@@ -0,0 +1,225 @@
+package io.github.contractormicroservice.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.contractormicroservice.model.entity.Contractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Кэш контрагентов по id (со справочниками, как их возвращает findByIdWithDetails), заполняемый при чтении.
+ * Отсутствующие id кэшируются отдельно (contractorMisses, с коротким TTL), чтобы повторные запросы
+ * несуществующих контрагентов не доходили до БД.
+ * При изменении контрагента обе записи удаляются сразу и повторно после commit транзакции:
+ * чтение, выполненное до commit, иначе могло бы вернуть в кэш старое значение.
+ * При изменении справочника кэш contractors очищается целиком (clear), так как содержит наименования из справочников.
+ * Ошибки Redis не прерывают запрос: чтение и запись выполняются напрямую в БД
+ */
+@Slf4j
+@Component
+public class ContractorCache {
+
+    public static final String CONTRACTORS = "contractors";
+    public static final String MISSES = "contractorMisses";
+
+    private final Cache contractors;
+    private final Cache misses;
+
+    public ContractorCache(CacheManager cacheManager) {
+        this.contractors = cacheManager.getCache(CONTRACTORS);
+        this.misses = cacheManager.getCache(MISSES);
+    }
+
+    /**
+     * Сериализатор значений кэша contractors. isActive в JSON API скрыт (@JsonIgnore), но в кэше сохраняется
+     */
+    public static RedisSerializer<Contractor> redisSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addMixIn(Contractor.class, CachedContractor.class);
+        return new Jackson2JsonRedisSerializer<>(objectMapper, Contractor.class);
+    }
+
+    /**
+     * Контрагент из кэша; при промахе загружается loader и кэшируется (в том числе отсутствие контрагента)
+     */
+    public Optional<Contractor> get(String id, Function<String, Optional<Contractor>> loader) {
+        try {
+            Contractor cached = contractors.get(id, Contractor.class);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            if (misses.get(id) != null) {
+                return Optional.empty();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Contractor cache read failed for {}: {}", id, e.getMessage());
+            return loader.apply(id);
+        }
+
+        Optional<Contractor> loaded = loader.apply(id);
+        try {
+            if (loaded.isPresent()) {
+                fill(contractors, id, loaded.get());
+            } else {
+                fill(misses, id, Boolean.TRUE);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Contractor cache write failed for {}: {}", id, e.getMessage());
+        }
+        return loaded;
+    }
+
+    /**
+     * Контрагенты из кэша по нескольким id; не найденные в кэше загружаются одним вызовом loader
+     * (отсутствующие в БД кэшируются, как в get)
+     * @return найденные контрагенты по id
+     */
+    public Map<String, Contractor> getAll(Collection<String> ids, Function<Collection<String>, List<Contractor>> loader) {
+        Map<String, Contractor> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        try {
+            for (String id : ids) {
+                Contractor cached = contractors.get(id, Contractor.class);
+                if (cached != null) {
+                    found.put(id, cached);
+                } else if (misses.get(id) == null) {
+                    missing.add(id);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Contractor cache read failed for {} ids: {}", ids.size(), e.getMessage());
+            return byId(loader.apply(ids));
+        }
+
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<String, Contractor> loaded = byId(loader.apply(missing));
+        try {
+            for (String id : missing) {
+                Contractor contractor = loaded.get(id);
+                if (contractor != null) {
+                    fill(contractors, id, contractor);
+                } else {
+                    fill(misses, id, Boolean.TRUE);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Contractor cache write failed for {} ids: {}", missing.size(), e.getMessage());
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    /**
+     * Заполнение после промаха: в двухуровневом кэше - без рассылки инвалидации остальным экземплярам
+     */
+    private static void fill(Cache cache, String id, Object value) {
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.fill(id, value);
+        } else {
+            cache.put(id, value);
+        }
+    }
+
+    private static Map<String, Contractor> byId(List<Contractor> contractors) {
+        Map<String, Contractor> byId = new HashMap<>();
+        for (Contractor contractor : contractors) {
+            byId.put(contractor.getId(), contractor);
+        }
+        return byId;
+    }
+
+    /**
+     * Удалить контрагента из кэша сейчас и, если идет транзакция, повторно после commit
+     */
+    public void evict(String id) {
+        evictAll(List.of(id));
+    }
+
+    public void evictAll(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        evictNow(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<String> committed = List.copyOf(ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(committed);
+                }
+            });
+        }
+    }
+
+    /**
+     * Очистить кэш контрагентов (отметки об отсутствии остаются) сейчас и, если идет транзакция, повторно после commit
+     */
+    public void clear() {
+        clearNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearNow();
+                }
+            });
+        }
+    }
+
+    private void clearNow() {
+        try {
+            contractors.clear();
+        } catch (RuntimeException e) {
+            log.warn("Contractor cache clear failed: {}", e.getMessage());
+        }
+    }
+
+    private void evictNow(Collection<String> ids) {
+        try {
+            for (String id : ids) {
+                contractors.evict(id);
+                misses.evict(id);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Contractor cache eviction failed: {}", e.getMessage());
+        }
+    }
+
+    private abstract static class CachedContractor {
+
+        @JsonIgnore(false)
+        @JsonProperty("isActive")
+        abstract Boolean getIsActive();
+
+        @JsonIgnore(false)
+        @JsonProperty("isActive")
+        abstract void setIsActive(Boolean isActive);
+
+    }
+
+}
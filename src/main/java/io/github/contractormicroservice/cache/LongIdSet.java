@@ -0,0 +1,82 @@
+package io.github.contractormicroservice.cache;
+
+import java.util.Collection;
+
+/**
+ * Неизменяемое множество идентификаторов типа long (открытая адресация, без упаковки в Long).
+ * Предназначено для небольших справочников, проверяемых на каждом запросе
+ */
+public final class LongIdSet {
+
+    private static final long EMPTY = 0L;
+
+    private final long[] table;
+    private final int mask;
+    private final boolean containsEmpty;
+    private final int size;
+
+    private LongIdSet(long[] table, boolean containsEmpty, int size) {
+        this.table = table;
+        this.mask = table.length - 1;
+        this.containsEmpty = containsEmpty;
+        this.size = size;
+    }
+
+    public static LongIdSet of(Collection<Long> ids) {
+        int capacity = Integer.highestOneBit(Math.max(2, ids.size() * 2 - 1)) << 1;
+        long[] table = new long[capacity];
+        int mask = capacity - 1;
+        boolean containsEmpty = false;
+        int size = 0;
+
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            if (id == EMPTY) {
+                if (!containsEmpty) {
+                    containsEmpty = true;
+                    size++;
+                }
+                continue;
+            }
+
+            int slot = hash(id) & mask;
+            while (table[slot] != EMPTY && table[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == EMPTY) {
+                table[slot] = id;
+                size++;
+            }
+        }
+
+        return new LongIdSet(table, containsEmpty, size);
+    }
+
+    public boolean contains(long id) {
+        if (id == EMPTY) {
+            return containsEmpty;
+        }
+
+        int slot = hash(id) & mask;
+        long value;
+        while ((value = table[slot]) != EMPTY) {
+            if (value == id) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
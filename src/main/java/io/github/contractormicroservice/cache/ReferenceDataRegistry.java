@@ -0,0 +1,180 @@
+package io.github.contractormicroservice.cache;
+
+import io.github.contractormicroservice.model.dto.CountryDTO;
+import io.github.contractormicroservice.model.dto.IndustryDTO;
+import io.github.contractormicroservice.model.dto.OrgFormDTO;
+import io.github.contractormicroservice.repository.country.CountryRepository;
+import io.github.contractormicroservice.repository.industry.IndustryRepository;
+import io.github.contractormicroservice.repository.orgForm.OrgFormRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Идентификаторы и наименования справочников (страны, индустриальные коды, организационные формы) в памяти
+ * для проверки внешних ключей контрагента и заполнения справочников контрагента без запросов к БД.
+ * Содержит все записи, включая неактивные (как existsById). Сбрасывается при сохранении и удалении
+ * записей справочников и перечитывается при следующем обращении.
+ * Отсутствующий в памяти идентификатор перепроверяется в БД: так экземпляр узнает о записях,
+ * созданных через другие экземпляры сервиса. Наименования, измененные через другие экземпляры,
+ * обновляются при периодическом перечитывании (refresh-interval-ms)
+ */
+@Slf4j
+@Component
+public class ReferenceDataRegistry {
+
+    private final CountryRepository countryRepository;
+    private final IndustryRepository industryRepository;
+    private final OrgFormRepository orgFormRepository;
+
+    private final AtomicLong version = new AtomicLong();
+    /**
+     * Загрузка идет к БД под блокировкой: ReentrantLock вместо synchronized не закрепляет виртуальный поток
+     */
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataRegistry(CountryRepository countryRepository,
+                                 IndustryRepository industryRepository,
+                                 OrgFormRepository orgFormRepository) {
+        this.countryRepository = countryRepository;
+        this.industryRepository = industryRepository;
+        this.orgFormRepository = orgFormRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        Snapshot loaded = snapshot();
+        log.info("Reference data loaded: {} countries, {} industries, {} org forms",
+                loaded.countries().size(), loaded.industries().size(), loaded.orgForms().size());
+    }
+
+    /**
+     * Сбросить загруженные идентификаторы (вызывается после изменения справочников)
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Периодический сброс: снимок перечитывается при следующем обращении
+     */
+    @Scheduled(initialDelayString = "${application.reference-data.refresh-interval-ms:300000}",
+            fixedDelayString = "${application.reference-data.refresh-interval-ms:300000}")
+    public void refresh() {
+        invalidate();
+    }
+
+    /**
+     * Проверить ссылки контрагента на справочники
+     * @return сообщение об ошибке или null, если все указанные записи существуют
+     */
+    public String findMissingReference(String country, Long industry, Long orgForm) {
+        if (country != null && !country.isEmpty() && !countryExists(country)) {
+            return "Country not found with id: " + country;
+        }
+
+        if (industry != null && !industryExists(industry)) {
+            return "Industry not found with id: " + industry;
+        }
+
+        if (orgForm != null && !orgFormExists(orgForm)) {
+            return "Org form not found with id: " + orgForm;
+        }
+
+        return null;
+    }
+
+    public boolean countryExists(String id) {
+        return snapshot().countries().containsKey(id) || confirm(countryRepository.existsById(id));
+    }
+
+    public boolean industryExists(long id) {
+        return snapshot().industries().contains(id) || confirm(industryRepository.existsById(id));
+    }
+
+    public boolean orgFormExists(long id) {
+        return snapshot().orgForms().contains(id) || confirm(orgFormRepository.existsById(id));
+    }
+
+    /**
+     * Страна по идентификатору из памяти; null, если идентификатор не задан или страны нет и в БД
+     */
+    public CountryDTO country(String id) {
+        if (id == null) {
+            return null;
+        }
+        String name = snapshot().countries().get(id);
+        if (name == null && confirm(countryRepository.existsById(id))) {
+            name = snapshot().countries().get(id);
+        }
+        return name == null ? null : CountryDTO.builder().id(id).name(name).build();
+    }
+
+    public IndustryDTO industry(Long id) {
+        if (id == null) {
+            return null;
+        }
+        String name = snapshot().industryNames().get(id);
+        if (name == null && confirm(industryRepository.existsById(id))) {
+            name = snapshot().industryNames().get(id);
+        }
+        return name == null ? null : IndustryDTO.builder().id(id).name(name).build();
+    }
+
+    public OrgFormDTO orgForm(Long id) {
+        if (id == null) {
+            return null;
+        }
+        String name = snapshot().orgFormNames().get(id);
+        if (name == null && confirm(orgFormRepository.existsById(id))) {
+            name = snapshot().orgFormNames().get(id);
+        }
+        return name == null ? null : OrgFormDTO.builder().id(id).name(name).build();
+    }
+
+    private boolean confirm(boolean exists) {
+        if (exists) {
+            invalidate();
+        }
+        return exists;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version.get()) {
+            return current;
+        }
+
+        loadLock.lock();
+        try {
+            current = snapshot;
+            long currentVersion = version.get();
+            if (current == null || current.version() != currentVersion) {
+                // Сброс во время загрузки оставит снимок со старой версией, и он будет перечитан
+                Map<Long, String> industryNames = Map.copyOf(industryRepository.findAllNames());
+                Map<Long, String> orgFormNames = Map.copyOf(orgFormRepository.findAllNames());
+                current = new Snapshot(currentVersion,
+                        Map.copyOf(countryRepository.findAllNames()),
+                        LongIdSet.of(industryNames.keySet()), industryNames,
+                        LongIdSet.of(orgFormNames.keySet()), orgFormNames);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private record Snapshot(long version, Map<String, String> countries,
+                            LongIdSet industries, Map<Long, String> industryNames,
+                            LongIdSet orgForms, Map<Long, String> orgFormNames) {
+    }
+
+}
@@ -0,0 +1,243 @@
+package io.github.contractormicroservice.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Двухуровневый кэш: локальный in-process (Caffeine, L1) перед общим кэшем Redis (L2).
+ * Чтение сначала идет в L1 и обращается к Redis только при промахе.
+ * Любое изменение записывается в Redis, сбрасывает L1 и рассылается остальным экземплярам через CacheInvalidationBus.
+ * Заполнение после промаха (get с valueLoader, fill, putIfAbsent) не рассылается: ключа, отсутствующего в Redis,
+ * нет и в L1 других экземпляров - он сброшен инвалидацией при изменении или истек по TTL.
+ * null кэшируется в L1, только если его кэширует Redis (allowNullValues).
+ * Значения из L1 возвращаются без копирования, поэтому кэшируемые объекты не должны изменяться вызывающим кодом
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private final CacheInvalidationBus invalidationBus;
+
+    /**
+     * Счетчик инвалидаций: значение, прочитанное из Redis до инвалидации, не должно попасть в L1 после нее
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Статистика обращений для TwoLevelCacheMeterBinder
+     */
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TwoLevelCache(String name, Cache remote, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                         CacheInvalidationBus invalidationBus) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            localHits.increment();
+            return wrapper;
+        }
+
+        long observed = generation.get();
+        wrapper = remote.get(key);
+        if (wrapper != null) {
+            remoteHits.increment();
+            putLocal(localKey, wrapper, observed);
+        } else {
+            misses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            localHits.increment();
+            return (T) wrapper.get();
+        }
+
+        long observed = generation.get();
+        AtomicBoolean loaded = new AtomicBoolean();
+        T value = remote.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        });
+        if (loaded.get()) {
+            misses.increment();
+            puts.increment();
+        } else {
+            remoteHits.increment();
+        }
+        if (value != null || allowNullValues()) {
+            putLocal(localKey, new SimpleValueWrapper(value), observed);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = localKey(key);
+        remote.put(key, value);
+        puts.increment();
+        evictLocal(localKey);
+        local.put(localKey, new SimpleValueWrapper(value));
+        invalidationBus.publish(name, localKey);
+    }
+
+    /**
+     * Заполнение после промаха значением, загруженным из источника: записывается в Redis и L1 без рассылки инвалидации
+     */
+    public void fill(Object key, Object value) {
+        String localKey = localKey(key);
+        long observed = generation.get();
+        remote.put(key, value);
+        puts.increment();
+        putLocal(localKey, new SimpleValueWrapper(value), observed);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String localKey = localKey(key);
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            puts.increment();
+        }
+        evictLocal(localKey);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        remote.evict(key);
+        evictions.increment();
+        evictLocal(localKey);
+        invalidationBus.publish(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String localKey = localKey(key);
+        boolean evicted = remote.evictIfPresent(key);
+        if (evicted) {
+            evictions.increment();
+        }
+        evictLocal(localKey);
+        invalidationBus.publish(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        invalidationBus.publish(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        clearLocal();
+        invalidationBus.publish(name, null);
+        return invalidated;
+    }
+
+    public long getLocalHitCount() {
+        return localHits.sum();
+    }
+
+    public long getRemoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getLocalSize() {
+        return local.estimatedSize();
+    }
+
+    /**
+     * Сбрасывает запись только в L1 (по сообщению от другого экземпляра)
+     */
+    public void evictLocal(String key) {
+        generation.incrementAndGet();
+        local.invalidate(key);
+    }
+
+    /**
+     * Очищает только L1 (по сообщению от другого экземпляра)
+     */
+    public void clearLocal() {
+        generation.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    private void putLocal(String localKey, ValueWrapper wrapper, long observedGeneration) {
+        local.put(localKey, wrapper);
+        // Если за время чтения из Redis пришла инвалидация, прочитанное значение могло устареть
+        if (generation.get() != observedGeneration) {
+            local.invalidate(localKey);
+        }
+    }
+
+    private boolean allowNullValues() {
+        return remote instanceof AbstractValueAdaptingCache cache && cache.isAllowNullValues();
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.github.contractormicroservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Менеджер двухуровневых кэшей: оборачивает кэши Redis локальными кэшами Caffeine
+ * с ограничением по размеру и TTL. TTL ограничивает время жизни устаревшей записи,
+ * если сообщение об инвалидации было потеряно
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final long localMaxSize;
+    private final Duration localTtl;
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LocalSpec> localSpecs = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, CacheInvalidationBus invalidationBus,
+                                long localMaxSize, Duration localTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+    }
+
+    /**
+     * Размер и TTL локального уровня отдельного кэша вместо общих. Задается до первого обращения к кэшу
+     */
+    public void setLocalSpec(String cacheName, long maxSize, Duration ttl) {
+        localSpecs.put(cacheName, new LocalSpec(maxSize, ttl));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+
+        LocalSpec spec = localSpecs.getOrDefault(name, new LocalSpec(localMaxSize, localTtl));
+        return caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(cacheName, remote,
+                Caffeine.newBuilder()
+                        .maximumSize(spec.maxSize())
+                        .expireAfterWrite(spec.ttl())
+                        .build(),
+                invalidationBus));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(remoteCacheManager.getCacheNames());
+        names.addAll(caches.keySet());
+        return names;
+    }
+
+    /**
+     * Применяет инвалидацию, полученную от другого экземпляра, к локальному уровню
+     */
+    public void onInvalidation(CacheInvalidationMessage message) {
+        TwoLevelCache cache = caches.get(message.cacheName());
+        if (cache == null) {
+            return;
+        }
+
+        if (message.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(message.key());
+        }
+    }
+
+    private record LocalSpec(long maxSize, Duration ttl) {
+    }
+
+}
@@ -0,0 +1,63 @@
+package io.github.contractormicroservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Метрики двухуровневого кэша: стандартные cache.gets (hit/miss), cache.puts, cache.evictions, cache.size (размер L1)
+ * и cache.level.hits с разбивкой попаданий по уровням (local - Caffeine, remote - Redis)
+ */
+public class TwoLevelCacheMeterBinder extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalSize() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getLocalHitCount() + cache.getRemoteHitCount() : 0;
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getMissCount() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getEvictionCount() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getPutCount() : 0;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        FunctionCounter.builder("cache.level.hits", cache, TwoLevelCache::getLocalHitCount)
+                .tags(getTagsWithCacheName())
+                .tag("level", "local")
+                .description("Попадания в локальный уровень кэша (Caffeine)")
+                .register(registry);
+        FunctionCounter.builder("cache.level.hits", cache, TwoLevelCache::getRemoteHitCount)
+                .tags(getTagsWithCacheName())
+                .tag("level", "remote")
+                .description("Попадания в общий уровень кэша (Redis) после промаха локального")
+                .register(registry);
+    }
+
+}
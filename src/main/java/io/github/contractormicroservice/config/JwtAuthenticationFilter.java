@@ -1,9 +1,14 @@
 package io.github.contractormicroservice.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,11 +25,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
- * Класс для обработки JWT-токенов в запросах
+ * Класс для обработки JWT-токенов в запросах.
+ * Ключ и парсер создаются один раз при старте. Проверенные токены кэшируются по SHA-256 хэшу до своего exp,
+ * поэтому повторные запросы с тем же токеном не проверяют подпись и не разбирают claims заново
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -32,6 +45,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
+    @Value("${application.security.jwt.token-cache.max-size:10000}")
+    private long tokenCacheMaxSize;
+
+    /**
+     * Максимальное время хранения проверенного токена; токены без exp не кэшируются
+     */
+    @Value("${application.security.jwt.token-cache.max-ttl-seconds:3600}")
+    private long tokenCacheMaxTtlSeconds;
+
+    private JwtParser jwtParser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(getSignInKey())
+                .build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        long ttlMillis = Math.min(token.expiresAtMillis() - System.currentTimeMillis(),
+                                TimeUnit.SECONDS.toMillis(tokenCacheMaxTtlSeconds));
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -42,18 +96,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (StringUtils.hasText(jwt)) {
             try {
-                Claims claims = extractAllClaims(jwt);
-                String username = claims.getSubject();
-
-                List<String> roles = claims.get("roles", List.class);
-
-                if (roles != null && !roles.isEmpty()) {
-                    List<GrantedAuthority> authorities = roles.stream()
-                            .map(role -> new SimpleGrantedAuthority(role))
-                            .collect(Collectors.toList());
+                VerifiedToken token = verify(jwt);
 
+                if (!token.authorities().isEmpty()) {
                     UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(username, null, authorities);
+                            new UsernamePasswordAuthenticationToken(token.username(), null, token.authorities());
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
@@ -77,18 +124,56 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
+    /**
+     * Возвращает результат проверки токена из кэша или проверяет подпись и разбирает claims.
+     * В кэш попадают только успешно проверенные токены с exp
+     * @param jwt - JWT-токен
+     */
+    private VerifiedToken verify(String jwt) {
+        String key = hash(jwt);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(jwt);
+        List<String> roles = claims.get("roles", List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .collect(Collectors.toUnmodifiableList());
+
+        Date expiration = claims.getExpiration();
+        VerifiedToken token = new VerifiedToken(claims.getSubject(), authorities,
+                expiration != null ? expiration.getTime() : 0);
+
+        if (expiration != null) {
+            verifiedTokens.put(key, token);
+        }
+        return token;
+    }
+
     /**
      * Извлекает всю "полезную нагрузку" из JWT-токена
      * @param token - JWT-токен
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    /**
+     * Хэш токена для ключа кэша (сам токен в памяти кэша не хранится)
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     /**
      * Получает секретный ключ для подписи JWT-токенов
      * @return - секретный ключ
@@ -98,4 +183,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    private record VerifiedToken(String username, List<GrantedAuthority> authorities, long expiresAtMillis) {
+    }
+
 }
@@ -0,0 +1,57 @@
+package io.github.contractormicroservice.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Конфигурация Kafka-продюсера Outbox (включается application.outbox.kafka.enabled).
+ * Продюсер идемпотентный (acks=all, не больше 5 запросов в полете), поэтому повторы отправки
+ * не создают дубликатов и не меняют порядок сообщений в секции
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.outbox.kafka.enabled", havingValue = "true")
+public class KafkaConfig {
+
+    /**
+     * Сколько продюсер ждет накопления пачки перед отправкой
+     */
+    @Value("${application.outbox.kafka.linger-ms:5}")
+    private int lingerMs;
+
+    /**
+     * Максимальный размер пачки сообщений одной секции (в байтах)
+     */
+    @Value("${application.outbox.kafka.batch-size:65536}")
+    private int batchSize;
+
+    @Bean
+    public ProducerFactory<String, String> outboxProducerFactory(KafkaProperties kafkaProperties, SslBundles sslBundles) {
+        Map<String, Object> config = new HashMap<>(kafkaProperties.buildProducerProperties(sslBundles));
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate(ProducerFactory<String, String> outboxProducerFactory) {
+        return new KafkaTemplate<>(outboxProducerFactory);
+    }
+
+}
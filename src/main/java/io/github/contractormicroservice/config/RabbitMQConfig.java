@@ -19,6 +19,12 @@ public class RabbitMQConfig {
     @Value("${application.rabbit.contractors.exchange:contractors_contractor_exchange}")
     private String contractorsContractorExchange;
 
+    /**
+     * Каждая дорожка Outbox-паблишера держит свой канал, поэтому кэш каналов должен вмещать их все
+     */
+    @Value("${application.outbox.publisher.lanes:1}")
+    private int outboxLanes;
+
     @Bean
     public DirectExchange contractorsContractorExchange() {
         return new DirectExchange(contractorsContractorExchange, true, false);
@@ -30,6 +36,7 @@ public class RabbitMQConfig {
 
         factory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
         factory.setPublisherReturns(true);
+        factory.setChannelCacheSize(Math.max(factory.getChannelCacheSize(), outboxLanes + 1));
 
         return factory;
     }
@@ -1,5 +1,11 @@
 package io.github.contractormicroservice.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.cache.CacheInvalidationBus;
+import io.github.contractormicroservice.cache.ContractorCache;
+import io.github.contractormicroservice.cache.TwoLevelCacheManager;
+import io.github.contractormicroservice.cache.TwoLevelCacheMeterBinderProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -7,27 +13,110 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
+import java.util.Set;
 
+/**
+ * Конфигурация кэша: Redis как общий уровень и, при включенном application.cache.local.enabled,
+ * локальный уровень Caffeine перед ним с инвалидацией через Redis pub/sub
+ */
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    /**
+     * Кэши создаются при старте, чтобы Spring Boot зарегистрировал их метрики (cache.gets, cache.puts и др.)
+     */
+    private static final Set<String> CACHE_NAMES = Set.of("countries", "industries", "orgForms",
+            ContractorCache.CONTRACTORS, ContractorCache.MISSES);
+
+    @Value("${application.cache.local.enabled:true}")
+    private boolean localCacheEnabled;
+
+    @Value("${application.cache.local.max-size:1000}")
+    private long localMaxSize;
+
+    @Value("${application.cache.local.ttl-seconds:600}")
+    private long localTtlSeconds;
+
+    @Value("${application.cache.invalidation-channel:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Value("${application.contractor.cache.ttl-seconds:600}")
+    private long contractorTtlSeconds;
+
+    /**
+     * Время хранения отметки об отсутствии контрагента
+     */
+    @Value("${application.contractor.cache.miss-ttl-seconds:60}")
+    private long contractorMissTtlSeconds;
+
+    @Value("${application.contractor.cache.local-max-size:10000}")
+    private long contractorLocalMaxSize;
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper) {
+        return new CacheInvalidationBus(stringRedisTemplate, objectMapper, invalidationChannel);
+    }
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, CacheInvalidationBus cacheInvalidationBus) {
         RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration
                 .defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-        return RedisCacheManager
+        RedisCacheManager redisCacheManager = RedisCacheManager
                 .builder(redisConnectionFactory)
                 .cacheDefaults(cacheConfiguration)
+                .withCacheConfiguration(ContractorCache.CONTRACTORS, cacheConfiguration
+                        .entryTtl(Duration.ofSeconds(contractorTtlSeconds))
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(ContractorCache.redisSerializer())))
+                .withCacheConfiguration(ContractorCache.MISSES, cacheConfiguration.entryTtl(Duration.ofSeconds(contractorMissTtlSeconds)))
+                .initialCacheNames(CACHE_NAMES)
+                .enableStatistics()
                 .build();
+
+        if (!localCacheEnabled) {
+            return redisCacheManager;
+        }
+
+        redisCacheManager.initializeCaches();
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager, cacheInvalidationBus,
+                localMaxSize, Duration.ofSeconds(localTtlSeconds));
+        cacheManager.setLocalSpec(ContractorCache.CONTRACTORS, contractorLocalMaxSize,
+                Duration.ofSeconds(Math.min(localTtlSeconds, contractorTtlSeconds)));
+        cacheManager.setLocalSpec(ContractorCache.MISSES, contractorLocalMaxSize,
+                Duration.ofSeconds(Math.min(localTtlSeconds, contractorMissTtlSeconds)));
+        return cacheManager;
+    }
+
+    @Bean
+    public TwoLevelCacheMeterBinderProvider twoLevelCacheMeterBinderProvider() {
+        return new TwoLevelCacheMeterBinderProvider();
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            CacheInvalidationBus cacheInvalidationBus,
+                                                                            CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            container.addMessageListener(
+                    (message, pattern) -> cacheInvalidationBus.decode(message).ifPresent(twoLevelCacheManager::onInvalidation),
+                    new ChannelTopic(cacheInvalidationBus.getChannel()));
+        }
+
+        return container;
     }
 
 }
@@ -3,6 +3,7 @@ package io.github.contractormicroservice.config;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -30,6 +31,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/ui/**").authenticated()
                         .requestMatchers("/api/v1/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        // Возврат событий из outbox_dead_letter в очередь - только администратору
+                        .requestMatchers(HttpMethod.GET, "/actuator/outboxdeadletters/**").authenticated()
+                        .requestMatchers("/actuator/outboxdeadletters/**").hasRole("SUPERUSER")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -1,11 +1,16 @@
 package io.github.contractormicroservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.model.dto.ContractorBatchResult;
 import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.dto.ContractorExportFormat;
+import io.github.contractormicroservice.model.dto.ContractorHierarchyNode;
 import io.github.contractormicroservice.model.entity.Contractor;
 import io.github.contractormicroservice.model.entity.ContractorFilter;
 import io.github.contractormicroservice.model.entity.Pagination;
 import io.github.contractormicroservice.service.ContractorService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -13,9 +18,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,7 +34,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * Контроллер для работы с api контрагентов
@@ -38,9 +55,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class ContractorController {
 
     private final ContractorService contractorService;
+    private final ObjectMapper objectMapper;
 
-    public ContractorController(ContractorService contractorService) {
+    public ContractorController(ContractorService contractorService, ObjectMapper objectMapper) {
         this.contractorService = contractorService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Получить контрагента по ID")
@@ -100,6 +119,92 @@ public class ContractorController {
         return ResponseEntity.ok(contractor);
     }
 
+    @Operation(summary = "Получить контрагентов по списку id",
+            description = "Контрагенты со справочниками в порядке переданных id. Найденные в кэше по id берутся из него, "
+                    + "остальные загружаются одним запросом. Несуществующие id пропускаются, повторы возвращаются один раз")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Найденные контрагенты",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = Contractor.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Передано больше application.contractor.batch-get.max-ids идентификаторов")
+    })
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<Contractor>> getContractors(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Идентификаторы контрагентов",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "[\"TEST-123\", \"TEST-124\"]")
+                    )
+            )
+            @RequestBody List<String> ids) {
+        log.info("Request to get contractors by {} ids", ids.size());
+        List<Contractor> contractors = contractorService.getAll(ids);
+        log.info("Contractors found: {}", contractors.size());
+        return ResponseEntity.ok(contractors);
+    }
+
+    @Operation(summary = "Поддерево контрагента",
+            description = "Контрагент (depth = 0) и все его активные потомки одним рекурсивным запросом, "
+                    + "потоком NDJSON в порядке обхода в глубину")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Поддерево контрагента, один контрагент на строку",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = ContractorHierarchyNode.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Контрагент не найден")
+    })
+    @GetMapping(value = "/{id}/subtree", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getSubtree(
+            @PathVariable String id,
+            @Parameter(description = "Максимальная глубина (по умолчанию и не больше application.contractor.hierarchy.max-depth)")
+            @RequestParam(required = false) Integer depth) {
+        log.info("Request to get subtree of contractor {} with depth {}", id, depth);
+        contractorService.getOne(id);
+
+        StreamingResponseBody stream = output -> contractorService.exportSubtree(id, depth, node -> writeNdjson(output, node));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(stream);
+    }
+
+    @Operation(summary = "Цепочка родителей контрагента",
+            description = "Контрагент (depth = 0) и его активные родители до корня одним рекурсивным запросом, потоком NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Цепочка родителей, один контрагент на строку",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = ContractorHierarchyNode.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Контрагент не найден")
+    })
+    @GetMapping(value = "/{id}/ancestors", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAncestors(
+            @PathVariable String id,
+            @Parameter(description = "Максимальное количество уровней вверх (по умолчанию и не больше application.contractor.hierarchy.max-depth)")
+            @RequestParam(required = false) Integer depth) {
+        log.info("Request to get ancestors of contractor {} with depth {}", id, depth);
+        contractorService.getOne(id);
+
+        StreamingResponseBody stream = output -> contractorService.exportAncestors(id, depth, node -> writeNdjson(output, node));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(stream);
+    }
+
     @Operation(summary = "Удалить контрагента (логическое удаление)")
     @ApiResponses(value = {
             @ApiResponse(
@@ -269,6 +374,74 @@ public class ContractorController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedContractor);
     }
 
+    @Operation(summary = "Пакетно сохранить или обновить контрагентов (JSON-массив)",
+            description = "Контрагенты сохраняются пачками (application.contractor.batch.chunk-size), каждая пачка - одной транзакцией. "
+                    + "Ошибка отдельного контрагента не прерывает загрузку и возвращается в его результате")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Результаты по каждому контрагенту в порядке входных данных",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ContractorBatchResult.class)),
+                            examples = @ExampleObject(
+                                    value = """
+                                    [
+                                        {"index": 0, "id": "TEST-1", "status": "CREATED"},
+                                        {"index": 1, "id": "TEST-2", "status": "UPDATED"},
+                                        {"index": 2, "id": "TEST-3", "status": "FAILED", "error": "Country not found with id: XX"}
+                                    ]
+                                    """
+                            )
+                    )
+            )
+    })
+    @PutMapping(value = "/save/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ContractorBatchResult>> saveContractorsBatch(@RequestBody List<ContractorDTO> contractors) {
+        log.info("Request to save contractors batch: {} items", contractors.size());
+        List<ContractorBatchResult> results = contractorService.saveBatch(contractors);
+        log.info("Contractors batch saved: {} items", results.size());
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation(summary = "Пакетно сохранить или обновить контрагентов (поток NDJSON)",
+            description = "Один контрагент на строку. Результаты возвращаются потоком NDJSON по мере сохранения пачек")
+    @PutMapping(value = "/save/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> saveContractorsBatchStream(HttpServletRequest request) throws IOException {
+        log.info("Request to save contractors NDJSON stream");
+        InputStream body = request.getInputStream();
+
+        StreamingResponseBody stream = output -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            contractorService.saveBatch(new NdjsonContractorReader(reader, objectMapper), results -> writeNdjson(output, results));
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(stream);
+    }
+
+    private void writeNdjson(OutputStream output, List<ContractorBatchResult> results) {
+        try {
+            for (ContractorBatchResult result : results) {
+                output.write(objectMapper.writeValueAsBytes(result));
+                output.write('\n');
+            }
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNdjson(OutputStream output, ContractorHierarchyNode node) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(node));
+            output.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Operation(summary = "Поиск контрагентов с пагинацией и фильтрами")
     @ApiResponses(value = {
             @ApiResponse(
@@ -344,11 +517,52 @@ public class ContractorController {
             )
             @RequestBody(required = false) ContractorFilter searchRequest,
                                                @RequestParam(defaultValue = "0") Integer page,
-                                               @RequestParam(defaultValue = "10") Integer limit) {
+                                               @RequestParam(defaultValue = "10") Integer limit,
+                                               @Parameter(description = "Курсор keyset-пагинации (nextCursor из предыдущего ответа, "
+                                                       + "пустой - первая страница). Если передан, page игнорируется")
+                                               @RequestParam(required = false) String cursor) {
         log.info("Request to search contractors with search request: {}", searchRequest);
-        Pagination pagination = contractorService.searchContractors(searchRequest, page, limit);
+        Pagination pagination = cursor != null
+                ? contractorService.searchContractorsAfter(searchRequest, cursor, limit)
+                : contractorService.searchContractors(searchRequest, page, limit);
         log.info("Contractors found: {}", pagination.getContractors().size());
         return ResponseEntity.ok(pagination);
     }
 
+    @Operation(summary = "Выгрузка всех контрагентов по фильтру",
+            description = "Возвращает всех активных контрагентов, подходящих под фильтр поиска, без ограничения количества. "
+                    + "Строки читаются из БД серверным курсором и сразу пишутся в ответ, поэтому объем выгрузки не влияет на память сервиса")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Выгрузка в формате NDJSON (по умолчанию) или CSV",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")
+                    }
+            )
+    })
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportContractors(
+            @Parameter(description = "Фильтр поиска (как в /search)",
+                    schema = @Schema(implementation = ContractorFilter.class))
+            @RequestBody(required = false) ContractorFilter searchRequest,
+            @Parameter(description = "Формат выгрузки: NDJSON или CSV")
+            @RequestParam(defaultValue = "NDJSON") ContractorExportFormat format) {
+        log.info("Request to export contractors as {} with search request: {}", format, searchRequest);
+
+        StreamingResponseBody stream = output -> {
+            ContractorExportWriter writer = new ContractorExportWriter(format, output, objectMapper);
+            writer.writeHeader();
+            contractorService.exportContractors(searchRequest, writer::write);
+            writer.flush();
+            log.info("Contractors exported: {}", writer.getCount());
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + format.getFileName() + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(stream);
+    }
+
 }
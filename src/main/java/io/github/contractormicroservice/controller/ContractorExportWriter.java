@@ -0,0 +1,106 @@
+package io.github.contractormicroservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.model.dto.ContractorExportFormat;
+import io.github.contractormicroservice.model.entity.Contractor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Запись контрагентов в поток ответа по одному (без накопления выгрузки в памяти)
+ */
+class ContractorExportWriter {
+
+    private static final String CSV_HEADER = "id,parent_id,name,name_full,inn,ogrn,country,country_name,"
+            + "industry,industry_name,org_form,org_form_name,create_date,modify_date";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ContractorExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Writer writer;
+
+    private long count;
+
+    ContractorExportWriter(ContractorExportFormat format, OutputStream output, ObjectMapper objectMapper) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    void writeHeader() {
+        if (format == ContractorExportFormat.CSV) {
+            writeLine(CSV_HEADER);
+        }
+    }
+
+    void write(Contractor contractor) {
+        try {
+            writeLine(format == ContractorExportFormat.CSV ? toCsv(contractor) : objectMapper.writeValueAsString(contractor));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        count++;
+    }
+
+    void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    private void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toCsv(Contractor contractor) {
+        return String.join(",",
+                csv(contractor.getId()),
+                csv(contractor.getParentId()),
+                csv(contractor.getName()),
+                csv(contractor.getNameFull()),
+                csv(contractor.getInn()),
+                csv(contractor.getOgrn()),
+                csv(contractor.getCountry()),
+                csv(contractor.getCountryEntity() != null ? contractor.getCountryEntity().getName() : null),
+                csv(contractor.getIndustry()),
+                csv(contractor.getIndustryEntity() != null ? contractor.getIndustryEntity().getName() : null),
+                csv(contractor.getOrgForm()),
+                csv(contractor.getOrgFormEntity() != null ? contractor.getOrgFormEntity().getName() : null),
+                csv(contractor.getCreateDate()),
+                csv(contractor.getModifyDate()));
+    }
+
+    /**
+     * Значение CSV-поля: null - пустое поле, значения с разделителем, кавычками или переводом строки берутся в кавычки
+     */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = String.valueOf(value);
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -0,0 +1,66 @@
+package io.github.contractormicroservice.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.model.dto.ContractorBatchItem;
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Построчное чтение контрагентов из NDJSON (одна JSON-запись на строку, пустые строки пропускаются).
+ * Строка с некорректным JSON не прерывает чтение, а становится элементом с ошибкой разбора
+ */
+class NdjsonContractorReader implements Iterator<ContractorBatchItem> {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+
+    private String nextLine;
+    private int index;
+
+    NdjsonContractorReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                if (!line.isBlank()) {
+                    nextLine = line;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ContractorBatchItem next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        String line = nextLine;
+        nextLine = null;
+        int itemIndex = index++;
+
+        try {
+            return ContractorBatchItem.of(itemIndex, objectMapper.readValue(line, ContractorDTO.class));
+        } catch (JsonProcessingException e) {
+            return ContractorBatchItem.unparsable(itemIndex, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+}
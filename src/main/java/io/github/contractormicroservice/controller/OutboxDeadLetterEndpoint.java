@@ -0,0 +1,49 @@
+package io.github.contractormicroservice.controller;
+
+import io.github.contractormicroservice.repository.outbox.OutboxEventJdbcRepository.OutboxDeadLetter;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator-эндпоинт /actuator/outboxdeadletters: просмотр событий outbox_dead_letter
+ * и возврат их в очередь outbox (POST /actuator/outboxdeadletters/{id} - одно событие, без id - все).
+ * Возвращенные события отправляет обычный цикл publishOutboxEvents
+ */
+@Component
+@Endpoint(id = "outboxdeadletters")
+public class OutboxDeadLetterEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public OutboxDeadLetterEndpoint(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    @ReadOperation
+    public List<OutboxDeadLetter> deadLetters(@Nullable Integer limit) {
+        return outboxEventRepository.findDeadLetters(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+
+    @WriteOperation
+    public Map<String, Object> replay(@Selector String id) {
+        boolean replayed = outboxEventRepository.replayDeadLetter(id);
+        return Map.of("id", id, "replayed", replayed);
+    }
+
+    @WriteOperation
+    public Map<String, Object> replayAll() {
+        int replayed = outboxEventRepository.replayDeadLetters();
+        return Map.of("replayed", replayed);
+    }
+
+}
@@ -121,7 +121,10 @@ public class UIContractorController {
             )
             @RequestBody(required = false) ContractorFilter searchRequest,
             @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "10") Integer limit) {
+            @RequestParam(defaultValue = "10") Integer limit,
+            @Parameter(description = "Курсор keyset-пагинации (nextCursor из предыдущего ответа, "
+                    + "пустой - первая страница). Если передан, page игнорируется")
+            @RequestParam(required = false) String cursor) {
 
         log.info("UI Request to search contractors: {}", searchRequest);
 
@@ -149,7 +152,9 @@ public class UIContractorController {
             searchRequest.setCountry("RUS");
         }
 
-        Pagination pagination = contractorService.searchContractors(searchRequest, page, limit);
+        Pagination pagination = cursor != null
+                ? contractorService.searchContractorsAfter(searchRequest, cursor, limit)
+                : contractorService.searchContractors(searchRequest, page, limit);
         return ResponseEntity.ok(pagination);
     }
 
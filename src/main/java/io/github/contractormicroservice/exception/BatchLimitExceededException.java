@@ -0,0 +1,12 @@
+package io.github.contractormicroservice.exception;
+
+/**
+ * Кастомный класс ошибки при превышении допустимого размера пакетного запроса
+ */
+public class BatchLimitExceededException extends RuntimeException {
+
+    public BatchLimitExceededException(String message) {
+        super(message);
+    }
+
+}
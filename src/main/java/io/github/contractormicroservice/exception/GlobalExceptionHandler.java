@@ -35,6 +35,36 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorBody);
     }
 
+    /**
+     * Обработка исключения InvalidCursorException
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> invalidCursorException(
+            InvalidCursorException ex, WebRequest request) {
+
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("error", "Некорректный курсор");
+        errorBody.put("message", ex.getMessage());
+        errorBody.put("status", HttpStatus.BAD_REQUEST.value());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorBody);
+    }
+
+    /**
+     * Обработка исключения BatchLimitExceededException
+     */
+    @ExceptionHandler(BatchLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> batchLimitExceededException(
+            BatchLimitExceededException ex, WebRequest request) {
+
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("error", "Превышен размер пакета");
+        errorBody.put("message", ex.getMessage());
+        errorBody.put("status", HttpStatus.BAD_REQUEST.value());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorBody);
+    }
+
     /**
      * Обработка ошибок валидации
      */
@@ -0,0 +1,12 @@
+package io.github.contractormicroservice.exception;
+
+/**
+ * Кастомный класс ошибки при передаче некорректного курсора пагинации
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+}
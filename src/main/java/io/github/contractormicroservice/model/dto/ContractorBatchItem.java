@@ -0,0 +1,19 @@
+package io.github.contractormicroservice.model.dto;
+
+/**
+ * Элемент пакетной загрузки контрагентов
+ * @param index - порядковый номер во входных данных
+ * @param contractor - данные контрагента (null, если элемент не удалось разобрать)
+ * @param error - ошибка разбора элемента
+ */
+public record ContractorBatchItem(int index, ContractorDTO contractor, String error) {
+
+    public static ContractorBatchItem of(int index, ContractorDTO contractor) {
+        return new ContractorBatchItem(index, contractor, null);
+    }
+
+    public static ContractorBatchItem unparsable(int index, String error) {
+        return new ContractorBatchItem(index, null, error);
+    }
+
+}
@@ -0,0 +1,53 @@
+package io.github.contractormicroservice.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат сохранения одного контрагента в пакетной загрузке
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(
+        name = "ContractorBatchResult",
+        description = "Результат сохранения одного контрагента в пакетной загрузке",
+        example = """
+            {
+                "index": 0,
+                "id": "TEST-123",
+                "status": "CREATED"
+            }
+            """
+)
+public class ContractorBatchResult {
+
+    @Schema(description = "Порядковый номер контрагента во входных данных (с 0)", example = "0")
+    private Integer index;
+
+    @Schema(description = "Идентификатор контрагента", example = "TEST-123")
+    private String id;
+
+    @Schema(description = "Результат: CREATED, UPDATED или FAILED", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "Причина ошибки (только для FAILED)", example = "Country not found with id: XX")
+    private String error;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        FAILED
+    }
+
+    public static ContractorBatchResult failed(int index, String id, String error) {
+        return new ContractorBatchResult(index, id, Status.FAILED, error);
+    }
+
+}
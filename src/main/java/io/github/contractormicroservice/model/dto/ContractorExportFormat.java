@@ -0,0 +1,29 @@
+package io.github.contractormicroservice.model.dto;
+
+import lombok.Getter;
+
+/**
+ * Формат выгрузки контрагентов
+ */
+@Getter
+public enum ContractorExportFormat {
+
+    /**
+     * Один контрагент в JSON на строку (как в ответе поиска)
+     */
+    NDJSON("application/x-ndjson", "contractors.ndjson"),
+
+    /**
+     * CSV с заголовком (RFC 4180), наименования справочников в отдельных колонках
+     */
+    CSV("text/csv;charset=UTF-8", "contractors.csv");
+
+    private final String contentType;
+    private final String fileName;
+
+    ContractorExportFormat(String contentType, String fileName) {
+        this.contentType = contentType;
+        this.fileName = fileName;
+    }
+
+}
@@ -0,0 +1,38 @@
+package io.github.contractormicroservice.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.github.contractormicroservice.model.entity.Contractor;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Контрагент в иерархии (поддерево или цепочка родителей) с расстоянием до исходного контрагента
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonPropertyOrder({"depth"})
+@Schema(
+        name = "ContractorHierarchyNode",
+        description = "Контрагент в иерархии: поля контрагента и depth - расстояние до исходного контрагента",
+        example = """
+            {
+                "depth": 1,
+                "id": "TEST-124",
+                "parentId": "TEST-123",
+                "name": "TEST_NAME"
+            }
+            """
+)
+public class ContractorHierarchyNode {
+
+    @Schema(description = "Количество уровней от исходного контрагента (0 - сам контрагент)", example = "1")
+    private int depth;
+
+    @JsonUnwrapped
+    private Contractor contractor;
+
+}
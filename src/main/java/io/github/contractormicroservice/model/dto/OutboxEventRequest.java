@@ -0,0 +1,8 @@
+package io.github.contractormicroservice.model.dto;
+
+/**
+ * Данные события для пакетного сохранения в Outbox
+ */
+public record OutboxEventRequest(String aggregateId, String aggregateType, String eventType,
+                                 Object payload, String exchange, String routingKey) {
+}
@@ -0,0 +1,37 @@
+package io.github.contractormicroservice.model.entity;
+
+import io.github.contractormicroservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор keyset-пагинации контрагентов (id последнего контрагента страницы в Base64url)
+ */
+public final class ContractorCursor {
+
+    private ContractorCursor() {
+    }
+
+    public static String encode(String contractorId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(contractorId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует курсор в id контрагента
+     * @param cursor - курсор из ответа предыдущей страницы
+     * @return id контрагента или null, если курсор пустой (первая страница)
+     */
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
+}
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-import lombok.Generated;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
@@ -49,6 +48,23 @@ public class OutboxEvent implements Persistable<UUID> {
 
     private LocalDateTime processedAt;
 
+    private String claimedBy;
+
+    private LocalDateTime leaseExpiresAt;
+
+    /**
+     * Количество неудачных попыток отправки
+     */
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * Время, раньше которого событие не отправляется повторно (экспоненциальная задержка после неудачи)
+     */
+    private LocalDateTime nextAttemptAt;
+
+    private String lastError;
+
     @Builder.Default
     @JsonIgnore
     @Transient
@@ -1,5 +1,6 @@
 package io.github.contractormicroservice.model.entity;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -21,6 +22,15 @@ public class Pagination {
 
     private Boolean hasPrevious;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    /**
+     * true, если totalElements - оценка планировщика, а не точное количество
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean totalEstimated;
+
     public Pagination(List<Contractor> contractors, Integer page, Integer limit, Integer totalElements) {
         this.contractors = contractors;
         this.hasNext = (page * limit) < totalElements;
@@ -30,4 +40,15 @@ public class Pagination {
         this.totalElements = totalElements;
     }
 
+    /**
+     * Страница keyset-пагинации (без номера страницы и общего количества)
+     */
+    public Pagination(List<Contractor> contractors, Integer limit, Boolean hasPrevious, String nextCursor) {
+        this.contractors = contractors;
+        this.limit = limit;
+        this.hasNext = nextCursor != null;
+        this.hasPrevious = hasPrevious;
+        this.nextCursor = nextCursor;
+    }
+
 }
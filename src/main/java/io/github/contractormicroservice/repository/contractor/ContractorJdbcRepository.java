@@ -1,18 +1,68 @@
 package io.github.contractormicroservice.repository.contractor;
 
+import io.github.contractormicroservice.model.dto.ContractorHierarchyNode;
 import io.github.contractormicroservice.model.entity.Contractor;
 import io.github.contractormicroservice.model.entity.ContractorFilter;
 import io.github.contractormicroservice.model.entity.Pagination;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Repository
 public interface ContractorJdbcRepository {
 
     Optional<Contractor> findByIdWithDetails(String id);
 
+    /**
+     * Контрагенты со справочниками по списку id одним запросом (c.id = ANY), в произвольном порядке.
+     * Отсутствующие id пропускаются
+     */
+    List<Contractor> findAllByIdWithDetails(Collection<String> ids);
+
     Pagination searchContractors(ContractorFilter request, Integer page, Integer limit);
 
+    /**
+     * Keyset-пагинация: страница контрагентов с id больше afterId (без OFFSET и COUNT)
+     * @param afterId - id последнего контрагента предыдущей страницы (null - первая страница)
+     */
+    Pagination searchContractorsAfter(ContractorFilter request, String afterId, Integer limit);
+
+    /**
+     * Потоковое чтение всех активных контрагентов по фильтру одним запросом через серверный курсор
+     * (строки читаются порциями по export-fetch-size). Должно вызываться внутри транзакции:
+     * без нее драйвер PostgreSQL загружает весь результат в память
+     * @param consumer - обработчик каждого контрагента в порядке id
+     */
+    void streamContractors(ContractorFilter request, Consumer<Contractor> consumer);
+
+    /**
+     * Поддерево контрагента одним рекурсивным запросом (WITH RECURSIVE) через серверный курсор:
+     * сам контрагент (depth = 0) и его активные потомки в порядке обхода в глубину.
+     * Должно вызываться внутри транзакции, как streamContractors
+     * @param maxDepth - максимальная глубина от контрагента
+     */
+    void streamSubtree(String id, int maxDepth, Consumer<ContractorHierarchyNode> consumer);
+
+    /**
+     * Цепочка родителей контрагента одним рекурсивным запросом: сам контрагент (depth = 0),
+     * затем активные родители до корня или maxDepth
+     */
+    void streamAncestors(String id, int maxDepth, Consumer<ContractorHierarchyNode> consumer);
+
+    /**
+     * Идентификаторы из переданных, для которых уже есть контрагенты (один запрос)
+     */
+    Set<String> findExistingIds(Collection<String> ids);
+
+    /**
+     * Вставка или обновление контрагентов (INSERT ... ON CONFLICT DO UPDATE) одним JDBC batch.
+     * При обновлении create_date и is_active не изменяются
+     */
+    void upsertBatch(List<Contractor> contractors);
+
 }
 
@@ -1,52 +1,220 @@
 package io.github.contractormicroservice.repository.contractor;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.contractormicroservice.cache.ReferenceDataRegistry;
+import io.github.contractormicroservice.model.dto.ContractorHierarchyNode;
 import io.github.contractormicroservice.model.dto.CountryDTO;
 import io.github.contractormicroservice.model.dto.IndustryDTO;
 import io.github.contractormicroservice.model.dto.OrgFormDTO;
 import io.github.contractormicroservice.model.entity.Contractor;
+import io.github.contractormicroservice.model.entity.ContractorCursor;
 import io.github.contractormicroservice.model.entity.ContractorFilter;
 import io.github.contractormicroservice.model.entity.Pagination;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-
-import java.util.Collections;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.List;
 import java.util.HashMap;
-
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
 public class ContractorJdbcRepositoryImpl implements ContractorJdbcRepository {
 
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private static final String SELECT_WITH_DETAILS = """
+        SELECT c.id, c.parent_id, c.name, c.name_full, c.inn, c.ogrn,
+            c.country, c.industry, c.org_form,
+            c.create_date, c.modify_date, c.create_user_id, c.modify_user_id, c.is_active,
+            co.name as country_name, co.is_active as country_is_active,
+            i.id as industry_id, i.name as industry_name, i.is_active as industry_is_active,
+            of.id as org_form_id, of.name as org_form_name, of.is_active as org_form_is_active
+        FROM contractor c
+        LEFT JOIN country co ON c.country = co.id
+        LEFT JOIN industry i ON c.industry = i.id
+        LEFT JOIN org_form of ON c.org_form = of.id
+        """;
+
+    /**
+     * Только колонки contractor: справочники заполняются из ReferenceDataRegistry (режим MEMORY)
+     */
+    private static final String SELECT_CONTRACTOR = """
+        SELECT c.id, c.parent_id, c.name, c.name_full, c.inn, c.ogrn,
+            c.country, c.industry, c.org_form,
+            c.create_date, c.modify_date, c.create_user_id, c.modify_user_id, c.is_active
+        FROM contractor c
+        """;
+
+    /**
+     * Потомки контрагента: рекурсия по parent_id (idx_contractor_parent_id_active), path - путь от исходного
+     * контрагента, по нему строки сортируются в порядке обхода в глубину и отсекаются циклы
+     */
+    private static final String SUBTREE_CTE = """
+        WITH RECURSIVE tree AS (
+            SELECT c.id, 0 AS depth, ARRAY[c.id::text] AS path
+            FROM contractor c
+            WHERE c.id = :id
+            UNION ALL
+            SELECT c.id, t.depth + 1, t.path || c.id::text
+            FROM tree t
+            JOIN contractor c ON c.parent_id = t.id
+            WHERE c.is_active = true AND t.depth < :max_depth AND c.id <> ALL(t.path)
+        )
+        """;
+
+    private static final String ANCESTORS_CTE = """
+        WITH RECURSIVE tree AS (
+            SELECT c.id, c.parent_id, 0 AS depth, ARRAY[c.id::text] AS path
+            FROM contractor c
+            WHERE c.id = :id
+            UNION ALL
+            SELECT c.id, c.parent_id, t.depth + 1, t.path || c.id::text
+            FROM tree t
+            JOIN contractor c ON c.id = t.parent_id
+            WHERE c.is_active = true AND t.depth < :max_depth AND c.id <> ALL(t.path)
+        )
+        """;
+
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
-    public ContractorJdbcRepositoryImpl(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+    /**
+     * Источник наименований справочников контрагента: join - LEFT JOIN country, industry, org_form в каждом запросе,
+     * memory - выборка только из contractor и наименования из справочников в памяти
+     */
+    @Value("${application.contractor.query.details-mode:JOIN}")
+    private DetailsMode detailsMode = DetailsMode.JOIN;
+
+    /**
+     * Режим подсчета общего количества при поиске: exact - COUNT(*) на каждый запрос,
+     * cached - точное количество, кэшируемое на countCacheTtlSeconds по нормализованному фильтру,
+     * estimated - оценка планировщика (для небольших результатов - точный COUNT(*))
+     */
+    @Value("${application.contractor.search.count-mode:EXACT}")
+    private CountMode countMode = CountMode.EXACT;
+
+    @Value("${application.contractor.search.count-cache-ttl-seconds:30}")
+    private long countCacheTtlSeconds = 30;
+
+    @Value("${application.contractor.search.count-cache-max-size:10000}")
+    private long countCacheMaxSize = 10000;
+
+    /**
+     * Оценка планировщика, ниже которой в режиме estimated выполняется точный подсчет
+     */
+    @Value("${application.contractor.search.exact-count-threshold:10000}")
+    private long exactCountThreshold = 10000;
+
+    @Value("${application.contractor.search.count-pool-size:8}")
+    private int countPoolSize = 8;
+
+    /**
+     * Количество строк, получаемых из курсора за одно обращение к БД при выгрузке
+     */
+    @Value("${application.contractor.export.fetch-size:1000}")
+    private int exportFetchSize = 1000;
+
+    /**
+     * Выполнять подсчет в виртуальных потоках (общий режим spring.threads.virtual.enabled)
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private Cache<CountKey, Long> countCache;
+    private AsyncTaskExecutor countExecutor;
+    private NamedParameterJdbcTemplate exportJdbcTemplate;
+
+    private final MeterRegistry meterRegistry;
+    private final ReferenceDataRegistry referenceDataRegistry;
+
+    public ContractorJdbcRepositoryImpl(NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                        MeterRegistry meterRegistry,
+                                        ReferenceDataRegistry referenceDataRegistry) {
         this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.referenceDataRegistry = referenceDataRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        countCache = Caffeine.newBuilder()
+                .maximumSize(countCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(countCacheTtlSeconds))
+                .build();
+
+        countExecutor = virtualThreads ? virtualCountExecutor() : platformCountExecutor();
+
+        JdbcTemplate exportTemplate = new JdbcTemplate(namedParameterJdbcTemplate.getJdbcTemplate().getDataSource());
+        exportTemplate.setFetchSize(exportFetchSize);
+        exportJdbcTemplate = new NamedParameterJdbcTemplate(exportTemplate);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (countExecutor instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        } else if (countExecutor instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+    }
+
+    /**
+     * При заполненном пуле подсчет выполняется в вызывающем потоке, то есть последовательно
+     */
+    private AsyncTaskExecutor platformCountExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(countPoolSize);
+        executor.setMaxPoolSize(countPoolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("contractor-count-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Новый виртуальный поток на каждый подсчет. Число одновременных подсчетов ограничено countPoolSize,
+     * чтобы они не занимали все соединения пула: сверх лимита вызывающий поток ждет освобождения
+     */
+    private AsyncTaskExecutor virtualCountExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("contractor-count-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(countPoolSize);
+        executor.setTaskTerminationTimeout(5000);
+        return executor;
     }
 
     private final RowMapper<Contractor> contractorRowMapper = (rs, rowNum) -> {
-        Contractor contractor = new Contractor();
-        contractor.setId(rs.getString("id"));
-        contractor.setParentId(rs.getString("parent_id"));
-        contractor.setName(rs.getString("name"));
-        contractor.setNameFull(rs.getString("name_full"));
-        contractor.setInn(rs.getString("inn"));
-        contractor.setOgrn(rs.getString("ogrn"));
-        String country = rs.getString("country");
-        contractor.setCountry(rs.wasNull() ? null : country);
-        Long industry = rs.getLong("industry");
-        contractor.setIndustry(rs.wasNull() ? null : industry);
-        Long orgForm = rs.getLong("org_form");
-        contractor.setOrgForm(rs.wasNull() ? null : orgForm);
-        contractor.setCreateDate(rs.getTimestamp("create_date") != null ?
-                rs.getTimestamp("create_date").toLocalDateTime() : null);
-        contractor.setModifyDate(rs.getTimestamp("modify_date") != null ?
-                rs.getTimestamp("modify_date").toLocalDateTime() : null);
-        contractor.setCreateUserId(rs.getString("create_user_id"));
-        contractor.setModifyUserId(rs.getString("modify_user_id"));
-        contractor.setIsActive(rs.getBoolean("is_active"));
+        Contractor contractor = mapContractor(rs);
 
         if (rs.getString("country_name") != null) {
             CountryDTO countryInfo = new CountryDTO();
@@ -73,30 +241,77 @@ public class ContractorJdbcRepositoryImpl implements ContractorJdbcRepository {
         return contractor;
     };
 
+    private final RowMapper<Contractor> contractorMemoryRowMapper = this::mapWithMemoryDetails;
+
+    private Contractor mapWithMemoryDetails(ResultSet rs, int rowNum) throws SQLException {
+        Contractor contractor = mapContractor(rs);
+        contractor.setCountryEntity(referenceDataRegistry.country(contractor.getCountry()));
+        contractor.setIndustryEntity(referenceDataRegistry.industry(contractor.getIndustry()));
+        contractor.setOrgFormEntity(referenceDataRegistry.orgForm(contractor.getOrgForm()));
+        return contractor;
+    }
+
+    private static Contractor mapContractor(ResultSet rs) throws SQLException {
+        Contractor contractor = new Contractor();
+        contractor.setId(rs.getString("id"));
+        contractor.setParentId(rs.getString("parent_id"));
+        contractor.setName(rs.getString("name"));
+        contractor.setNameFull(rs.getString("name_full"));
+        contractor.setInn(rs.getString("inn"));
+        contractor.setOgrn(rs.getString("ogrn"));
+        String country = rs.getString("country");
+        contractor.setCountry(rs.wasNull() ? null : country);
+        Long industry = rs.getLong("industry");
+        contractor.setIndustry(rs.wasNull() ? null : industry);
+        Long orgForm = rs.getLong("org_form");
+        contractor.setOrgForm(rs.wasNull() ? null : orgForm);
+        contractor.setCreateDate(rs.getTimestamp("create_date") != null ?
+                rs.getTimestamp("create_date").toLocalDateTime() : null);
+        contractor.setModifyDate(rs.getTimestamp("modify_date") != null ?
+                rs.getTimestamp("modify_date").toLocalDateTime() : null);
+        contractor.setCreateUserId(rs.getString("create_user_id"));
+        contractor.setModifyUserId(rs.getString("modify_user_id"));
+        contractor.setIsActive(rs.getBoolean("is_active"));
+        return contractor;
+    }
+
+    private String selectSql() {
+        return detailsMode == DetailsMode.MEMORY ? SELECT_CONTRACTOR : SELECT_WITH_DETAILS;
+    }
+
+    private RowMapper<Contractor> rowMapper() {
+        return detailsMode == DetailsMode.MEMORY ? contractorMemoryRowMapper : contractorRowMapper;
+    }
+
     @Override
     public Optional<Contractor> findByIdWithDetails(String id) {
-        String sql = """
-        SELECT c.id, c.parent_id, c.name, c.name_full, c.inn, c.ogrn,
-            c.country, c.industry, c.org_form,
-            c.create_date, c.modify_date, c.create_user_id, c.modify_user_id, c.is_active,
-            co.name as country_name, co.is_active as country_is_active,
-            i.id as industry_id, i.name as industry_name, i.is_active as industry_is_active,
-            of.id as org_form_id, of.name as org_form_name, of.is_active as org_form_is_active
-        FROM contractor c
-        LEFT JOIN country co ON c.country = co.id
-        LEFT JOIN industry i ON c.industry = i.id
-        LEFT JOIN org_form of ON c.org_form = of.id
+        String sql = selectSql() + """
         WHERE c.id = :id
         """;
 
         SqlParameterSource parameterSource = new MapSqlParameterSource()
                 .addValue("id", id);
 
-        List<Contractor> contractors = namedParameterJdbcTemplate.query(sql, parameterSource, contractorRowMapper);
+        List<Contractor> contractors = namedParameterJdbcTemplate.query(sql, parameterSource, rowMapper());
 
         return contractors.isEmpty() ? Optional.empty() : Optional.of(contractors.getFirst());
     }
 
+    @Override
+    public List<Contractor> findAllByIdWithDetails(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String sql = selectSql() + """
+        WHERE c.id = ANY(?)
+        """;
+
+        return namedParameterJdbcTemplate.getJdbcTemplate().query(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", ids.toArray())),
+                rowMapper());
+    }
+
     @Override
     public Pagination searchContractors(ContractorFilter request, Integer page, Integer limit) {
 
@@ -104,45 +319,102 @@ public class ContractorJdbcRepositoryImpl implements ContractorJdbcRepository {
         parameterSource.put("limit", limit);
         parameterSource.put("offset", page * limit);
 
-        String sql = """
-            SELECT COUNT(*) FROM contractor c
-            LEFT JOIN country co ON c.country = co.id
-            LEFT JOIN industry i ON c.industry = i.id
-            LEFT JOIN org_form of ON c.org_form = of.id
-            WHERE c.is_active = true
-        """;
+        String filters = searchFilters(request, parameterSource);
+
+        // Количество считается параллельно с выборкой страницы, отдельным соединением
+        Map<String, Object> countParameters = Map.copyOf(parameterSource);
+        CompletableFuture<TotalCount> countFuture = CompletableFuture.supplyAsync(
+                () -> countContractors(request, filters, countParameters), countExecutor);
+
+        String searchSql = selectSql() + """
+            WHERE c.is_active = true""" + filters + """
+
+            ORDER BY c.id
+            LIMIT :limit OFFSET :offset
+            """;
+
+        List<Contractor> contractors = namedParameterJdbcTemplate.query(searchSql, parameterSource, rowMapper());
 
-        Long count = namedParameterJdbcTemplate.queryForObject(sql, parameterSource, Long.class);
+        TotalCount count = joinCount(countFuture);
 
-        if (count == null) {
-            return new Pagination(Collections.emptyList(), page, limit, 0);
+        Pagination pagination = new Pagination(contractors, page, limit, (int) Math.min(count.value(), Integer.MAX_VALUE));
+        if (count.estimated()) {
+            pagination.setTotalEstimated(true);
         }
+        return pagination;
+    }
+
+    @Override
+    public Pagination searchContractorsAfter(ContractorFilter request, String afterId, Integer limit) {
+
+        Map<String, Object> parameterSource = new HashMap<>();
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница, без COUNT(*)
+        parameterSource.put("limit", limit + 1);
 
         String filters = searchFilters(request, parameterSource);
 
-        String searchSql = """
-            SELECT c.id, c.parent_id, c.name, c.name_full, c.inn, c.ogrn,
-                c.country, c.industry, c.org_form,
-                c.create_date, c.modify_date, c.create_user_id, c.modify_user_id, c.is_active,
-                co.name as country_name, co.is_active as country_is_active,
-                i.id as industry_id, i.name as industry_name, i.is_active as industry_is_active,
-                of.id as org_form_id, of.name as org_form_name, of.is_active as org_form_is_active
-            FROM contractor c
-            LEFT JOIN country co ON c.country = co.id
-            LEFT JOIN industry i ON c.industry = i.id
-            LEFT JOIN org_form of ON c.org_form = of.id
+        if (afterId != null) {
+            filters += " AND c.id > :after_id";
+            parameterSource.put("after_id", afterId);
+        }
 
+        String searchSql = selectSql() + """
+            WHERE c.is_active = true""" + filters + """
+
+            ORDER BY c.id
+            LIMIT :limit
+            """;
+
+        List<Contractor> contractors = namedParameterJdbcTemplate.query(searchSql, parameterSource, rowMapper());
+
+        String nextCursor = null;
+        if (contractors.size() > limit) {
+            contractors = contractors.subList(0, limit);
+            nextCursor = ContractorCursor.encode(contractors.getLast().getId());
+        }
+
+        return new Pagination(contractors, limit, afterId != null, nextCursor);
+    }
+
+    @Override
+    public void streamContractors(ContractorFilter request, Consumer<Contractor> consumer) {
+
+        Map<String, Object> parameterSource = new HashMap<>();
+        String filters = searchFilters(request, parameterSource);
+
+        String exportSql = selectSql() + """
             WHERE c.is_active = true""" + filters + """
 
             ORDER BY c.id
-            LIMIT :limit OFFSET :offset
             """;
 
-        List<Contractor> contractors = namedParameterJdbcTemplate.query(searchSql, parameterSource, contractorRowMapper);
+        RowMapper<Contractor> rowMapper = rowMapper();
+        exportJdbcTemplate.query(exportSql, parameterSource, rs -> {
+            consumer.accept(rowMapper.mapRow(rs, rs.getRow()));
+        });
+    }
+
+    @Override
+    public void streamSubtree(String id, int maxDepth, Consumer<ContractorHierarchyNode> consumer) {
+        streamHierarchy(SUBTREE_CTE, "ORDER BY t.path", id, maxDepth, consumer);
+    }
+
+    @Override
+    public void streamAncestors(String id, int maxDepth, Consumer<ContractorHierarchyNode> consumer) {
+        streamHierarchy(ANCESTORS_CTE, "ORDER BY t.depth", id, maxDepth, consumer);
+    }
 
-        return new Pagination(contractors, page, limit, count.intValue());
+    private void streamHierarchy(String cte, String orderBy, String id, int maxDepth, Consumer<ContractorHierarchyNode> consumer) {
+        String sql = cte + "SELECT t.depth AS tree_depth, d.* FROM tree t JOIN (" + selectSql() + ") d ON d.id = t.id\n" + orderBy;
 
+        Map<String, Object> parameterSource = new HashMap<>();
+        parameterSource.put("id", id);
+        parameterSource.put("max_depth", maxDepth);
 
+        RowMapper<Contractor> rowMapper = rowMapper();
+        exportJdbcTemplate.query(sql, parameterSource, rs -> {
+            consumer.accept(new ContractorHierarchyNode(rs.getInt("tree_depth"), rowMapper.mapRow(rs, rs.getRow())));
+        });
     }
 
     private String searchFilters(ContractorFilter request, Map<String, Object> params) {
@@ -163,11 +435,11 @@ public class ContractorJdbcRepositoryImpl implements ContractorJdbcRepository {
         }
 
         if (request.getContractorSearch() != null && !request.getContractorSearch().trim().isEmpty()) {
+            // ILIKE по подстроке обслуживается триграммными GIN-индексами (idx_contractor_*_trgm), каждое условие OR - своим индексом
             sql.append(" AND (c.name ILIKE :search OR c.name_full ILIKE :search OR c.inn ILIKE :search OR c.ogrn ILIKE :search)");
-            params.put("search", "%" + request.getContractorSearch().trim() + "%");
+            params.put("search", "%" + escapeLike(request.getContractorSearch().trim()) + "%");
         }
 
-
         if (request.getCountry() != null && !request.getCountry().isEmpty()) {
             sql.append(" AND c.country = :country_name");
             params.put("country_name", request.getCountry());
@@ -187,4 +459,179 @@ public class ContractorJdbcRepositoryImpl implements ContractorJdbcRepository {
 
     }
 
+    /**
+     * Экранирует спецсимволы LIKE, чтобы строка поиска искалась как подстрока.
+     * Иначе '%' или '_' от пользователя превращаются в шаблон, из которого нельзя извлечь триграммы
+     */
+    private static String escapeLike(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Set<String> existing = new HashSet<>();
+        if (ids.isEmpty()) {
+            return existing;
+        }
+
+        namedParameterJdbcTemplate.getJdbcTemplate().query("SELECT id FROM contractor WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", ids.toArray())),
+                rs -> {
+                    existing.add(rs.getString("id"));
+                });
+        return existing;
+    }
+
+    @Override
+    public void upsertBatch(List<Contractor> contractors) {
+        if (contractors.isEmpty()) {
+            return;
+        }
+
+        String sql = """
+            INSERT INTO contractor (id, parent_id, name, name_full, inn, ogrn, country, industry, org_form, create_date, modify_date, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true)
+            ON CONFLICT (id) DO UPDATE SET
+                parent_id = EXCLUDED.parent_id,
+                name = EXCLUDED.name,
+                name_full = EXCLUDED.name_full,
+                inn = EXCLUDED.inn,
+                ogrn = EXCLUDED.ogrn,
+                country = EXCLUDED.country,
+                industry = EXCLUDED.industry,
+                org_form = EXCLUDED.org_form,
+                modify_date = EXCLUDED.modify_date
+            """;
+
+        namedParameterJdbcTemplate.getJdbcTemplate().batchUpdate(sql, contractors, contractors.size(), (ps, contractor) -> {
+            ps.setString(1, contractor.getId());
+            ps.setString(2, contractor.getParentId());
+            ps.setString(3, contractor.getName());
+            ps.setString(4, contractor.getNameFull());
+            ps.setString(5, contractor.getInn());
+            ps.setString(6, contractor.getOgrn());
+            ps.setString(7, contractor.getCountry());
+            ps.setObject(8, contractor.getIndustry(), Types.BIGINT);
+            ps.setObject(9, contractor.getOrgForm(), Types.BIGINT);
+            ps.setTimestamp(10, Timestamp.valueOf(contractor.getCreateDate()));
+            ps.setTimestamp(11, Timestamp.valueOf(contractor.getModifyDate()));
+        });
+    }
+
+    /**
+     * Общее количество подрядчиков по фильтру в соответствии с countMode.
+     * Фильтры затрагивают только колонки contractor, поэтому JOIN справочников для подсчета не нужны.
+     * Подсчет выполняется в отдельном потоке, поэтому его время измеряется отдельно от spring.data.repository.invocations
+     */
+    private TotalCount countContractors(ContractorFilter request, String filters, Map<String, Object> parameters) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TotalCount count = switch (countMode) {
+            case EXACT -> new TotalCount(exactCount(filters, parameters), false);
+            case CACHED -> new TotalCount(cachedCount(CountKey.of(request), filters, parameters), false);
+            case ESTIMATED -> estimatedCount(filters, parameters);
+        };
+        sample.stop(Timer.builder("contractor.search.count")
+                .description("Подсчет общего количества контрагентов при поиске")
+                .tag("mode", countMode.name().toLowerCase(Locale.ROOT))
+                .tag("estimated", String.valueOf(count.estimated()))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        return count;
+    }
+
+    /**
+     * Запрос к БД выполняется вне Cache.get(key, loader): загрузчик Caffeine работает внутри
+     * ConcurrentHashMap.compute (synchronized), что закрепило бы виртуальный поток за платформенным
+     * на все время запроса. Одновременные промахи по одному ключу могут посчитать количество дважды
+     */
+    private long cachedCount(CountKey key, String filters, Map<String, Object> parameters) {
+        Long cached = countCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long count = exactCount(filters, parameters);
+        countCache.put(key, count);
+        return count;
+    }
+
+    private long exactCount(String filters, Map<String, Object> parameters) {
+        String sql = "SELECT COUNT(*) FROM contractor c WHERE c.is_active = true" + filters;
+        Long count = namedParameterJdbcTemplate.queryForObject(sql, parameters, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Оценка количества по плану запроса (EXPLAIN без выполнения). Если оценка небольшая,
+     * точный подсчет дешев и выполняется вместо нее
+     */
+    private TotalCount estimatedCount(String filters, Map<String, Object> parameters) {
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM contractor c WHERE c.is_active = true" + filters;
+        String plan = namedParameterJdbcTemplate.queryForObject(sql, parameters, String.class);
+
+        Matcher matcher = PLAN_ROWS.matcher(plan == null ? "" : plan);
+        if (!matcher.find()) {
+            return new TotalCount(exactCount(filters, parameters), false);
+        }
+
+        long estimate = Long.parseLong(matcher.group(1));
+        if (estimate < exactCountThreshold) {
+            return new TotalCount(exactCount(filters, parameters), false);
+        }
+        return new TotalCount(estimate, true);
+    }
+
+    private static TotalCount joinCount(CompletableFuture<TotalCount> countFuture) {
+        try {
+            return countFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public enum CountMode {
+        EXACT,
+        CACHED,
+        ESTIMATED
+    }
+
+    public enum DetailsMode {
+        JOIN,
+        MEMORY
+    }
+
+    private record TotalCount(long value, boolean estimated) {
+    }
+
+    /**
+     * Нормализованный фильтр - ключ кэша количества (пустые значения и регистр строки поиска не различаются)
+     */
+    private record CountKey(String contractorId, String parentId, String search, String country, Integer industry, String orgForm) {
+
+        static CountKey of(ContractorFilter filter) {
+            if (filter == null) {
+                return new CountKey(null, null, null, null, null, null);
+            }
+            String search = blankToNull(filter.getContractorSearch());
+            return new CountKey(
+                    blankToNull(filter.getContractorId()),
+                    blankToNull(filter.getParentId()),
+                    search == null ? null : search.toLowerCase(Locale.ROOT),
+                    blankToNull(filter.getCountry()),
+                    filter.getIndustry() == null || filter.getIndustry() == 0 ? null : filter.getIndustry(),
+                    blankToNull(filter.getOrgForm()));
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.trim().isEmpty() ? null : value.trim();
+        }
+
+    }
+
 }
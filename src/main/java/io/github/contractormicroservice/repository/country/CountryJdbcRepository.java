@@ -3,6 +3,7 @@ package io.github.contractormicroservice.repository.country;
 import io.github.contractormicroservice.model.entity.Country;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Расширение методов CrudRepository для работы с БД
@@ -11,4 +12,9 @@ public interface CountryJdbcRepository {
 
     List<Country> findAllActive();
 
+    /**
+     * Наименования всех записей по идентификатору, включая неактивные
+     */
+    Map<String, String> findAllNames();
+
 }
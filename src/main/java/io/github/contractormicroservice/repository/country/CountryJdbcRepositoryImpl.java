@@ -5,7 +5,9 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Реализация класса CountryJdbcRepository
@@ -32,6 +34,16 @@ public class CountryJdbcRepositoryImpl implements CountryJdbcRepository {
         return namedParameterJdbcTemplate.query(sql, countryRowMapper);
     }
 
+    @Override
+    public Map<String, String> findAllNames() {
+        String sql = "SELECT id, name FROM country";
+        Map<String, String> names = new HashMap<>();
+        namedParameterJdbcTemplate.getJdbcTemplate().query(sql, rs -> {
+            names.put(rs.getString("id"), rs.getString("name"));
+        });
+        return names;
+    }
+
 }
 
 
@@ -4,6 +4,7 @@ import io.github.contractormicroservice.model.entity.Industry;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Расширение методов CrudRepository для работы с БД
@@ -13,6 +14,11 @@ public interface IndustryJdbcRepository {
 
     List<Industry> findAllActive();
 
+    /**
+     * Наименования всех записей по идентификатору, включая неактивные
+     */
+    Map<Long, String> findAllNames();
+
     void synchronizeSequence();
 
 }
@@ -7,7 +7,9 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.PreparedStatement;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Реализация интерфейса IndustryJdbcRepository
@@ -34,6 +36,16 @@ public class IndustryJdbcRepositoryImpl implements IndustryJdbcRepository {
         return namedParameterJdbcTemplate.query(sql, industryRowMapper);
     }
 
+    @Override
+    public Map<Long, String> findAllNames() {
+        String sql = "SELECT id, name FROM industry";
+        Map<Long, String> names = new HashMap<>();
+        namedParameterJdbcTemplate.getJdbcTemplate().query(sql, rs -> {
+            names.put(rs.getLong("id"), rs.getString("name"));
+        });
+        return names;
+    }
+
     @Override
     @Transactional
     public void synchronizeSequence() {
@@ -4,12 +4,18 @@ import io.github.contractormicroservice.model.entity.OrgForm;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public interface OrgFormJdbcRepository {
 
     List<OrgForm> findAllActive();
 
+    /**
+     * Наименования всех записей по идентификатору, включая неактивные
+     */
+    Map<Long, String> findAllNames();
+
     void synchronizeSequence();
 
 }
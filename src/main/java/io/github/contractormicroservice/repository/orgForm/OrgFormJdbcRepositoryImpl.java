@@ -7,7 +7,9 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.PreparedStatement;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class OrgFormJdbcRepositoryImpl implements OrgFormJdbcRepository {
@@ -31,6 +33,16 @@ public class OrgFormJdbcRepositoryImpl implements OrgFormJdbcRepository {
         return namedParameterJdbcTemplate.query(sql, orgFormRowMapper);
     }
 
+    @Override
+    public Map<Long, String> findAllNames() {
+        String sql = "SELECT id, name FROM org_form";
+        Map<Long, String> names = new HashMap<>();
+        namedParameterJdbcTemplate.getJdbcTemplate().query(sql, rs -> {
+            names.put(rs.getLong("id"), rs.getString("name"));
+        });
+        return names;
+    }
+
     @Override
     @Transactional
     public void synchronizeSequence() {
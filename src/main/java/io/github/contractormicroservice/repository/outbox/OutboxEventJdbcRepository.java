@@ -0,0 +1,134 @@
+package io.github.contractormicroservice.repository.outbox;
+
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Расширение методов CrudRepository для работы с таблицей Outbox
+ */
+public interface OutboxEventJdbcRepository {
+
+    /**
+     * Отмечает события обработанными одним запросом
+     * @param ids - идентификаторы событий
+     * @return количество обновленных строк
+     */
+    int markAsProcessedBatch(Collection<String> ids);
+
+    /**
+     * Вставляет события одним JDBC batch
+     * @param events - новые события
+     */
+    void insertBatch(List<OutboxEvent> events);
+
+    /**
+     * Отправляет NOTIFY в канал outbox. Внутри транзакции уведомление доставляется слушателям только после commit
+     */
+    void notifyNewEvents();
+
+    /**
+     * Очередь outbox: количество необработанных событий и время создания самого старого из них (один запрос)
+     */
+    OutboxBacklog findBacklog();
+
+    /**
+     * Секции таблицы outbox_events с диапазоном по created_at (секция DEFAULT не возвращается)
+     */
+    List<OutboxPartition> findPartitions();
+
+    /**
+     * Создает секцию outbox_events на диапазон created_at [from, to)
+     */
+    void createPartition(String name, LocalDate from, LocalDate to);
+
+    /**
+     * Есть ли в секции необработанные события
+     */
+    boolean hasUnprocessedEvents(String partition);
+
+    /**
+     * Отсоединяет секцию от outbox_events и, если drop, удаляет ее.
+     * Отсоединенная секция остается отдельной таблицей (например, для архивации)
+     */
+    void removePartition(String partition, boolean drop);
+
+    /**
+     * Удаляет из секции DEFAULT обработанные события, созданные раньше processedBefore.
+     * В DEFAULT попадают события дней, для которых секция не была создана заранее (например, сервис был остановлен
+     * дольше premake-days); такие строки не удаляются вместе с дневными секциями
+     * @return количество удаленных событий
+     */
+    int purgeDefaultPartition(LocalDateTime processedBefore);
+
+    /**
+     * Количество событий в секции DEFAULT
+     */
+    long countDefaultPartitionEvents();
+
+    /**
+     * Транзакционная advisory-блокировка обслуживания секций: обслуживание выполняет один экземпляр сервиса.
+     * Ожидание блокировок таблицы до конца транзакции ограничивается lockTimeoutMs: ожидающий DETACH/CREATE
+     * задерживал бы все последующие вставки в outbox_events
+     * @return true, если блокировка получена
+     */
+    boolean tryLockPartitionMaintenance(long lockTimeoutMs);
+
+    /**
+     * Фиксирует неудачные попытки отправки событий: увеличивает attempts, сохраняет ошибку и откладывает
+     * следующую попытку на min(maxDelayMs, initialDelayMs * 2^attempts). Событие, исчерпавшее maxAttempts попыток,
+     * переносится в outbox_dead_letter (одним запросом на событие)
+     */
+    void recordFailures(List<OutboxFailure> failures, int maxAttempts, long initialDelayMs, long maxDelayMs);
+
+    /**
+     * События из outbox_dead_letter, начиная с последних перенесенных
+     */
+    List<OutboxDeadLetter> findDeadLetters(int limit);
+
+    /**
+     * Возвращает событие из outbox_dead_letter в очередь outbox с обнуленным счетчиком попыток.
+     * Событие ставится в конец очереди (created_at - текущее время), чтобы не опередить более новые события агрегата
+     * @return false, если события нет в outbox_dead_letter
+     */
+    boolean replayDeadLetter(String id);
+
+    /**
+     * Возвращает в очередь outbox все события из outbox_dead_letter (в порядке исходного created_at)
+     * @return количество возвращенных событий
+     */
+    int replayDeadLetters();
+
+    /**
+     * @param id - идентификатор события
+     * @param error - причина неудачи
+     */
+    record OutboxFailure(String id, String error) {
+    }
+
+    /**
+     * Событие, не отправленное за максимальное количество попыток
+     */
+    record OutboxDeadLetter(String id, String aggregateId, String aggregateType, String eventType, String exchange,
+                            String routingKey, String payload, LocalDateTime createdAt, int attempts, String lastError,
+                            LocalDateTime deadAt) {
+    }
+
+    /**
+     * @param name - имя секции
+     * @param upperBound - верхняя (не включаемая) граница created_at секции
+     */
+    record OutboxPartition(String name, LocalDateTime upperBound) {
+    }
+
+    /**
+     * @param size - количество необработанных событий
+     * @param oldestCreatedAt - время создания самого старого необработанного события (null, если очередь пуста)
+     */
+    record OutboxBacklog(long size, LocalDateTime oldestCreatedAt) {
+    }
+
+}
@@ -0,0 +1,255 @@
+package io.github.contractormicroservice.repository.outbox;
+
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Реализация интерфейса OutboxEventJdbcRepository
+ */
+public class OutboxEventJdbcRepositoryImpl implements OutboxEventJdbcRepository {
+
+    /**
+     * Канал LISTEN/NOTIFY, в который сообщается о новых событиях outbox
+     */
+    public static final String NOTIFY_CHANNEL = "outbox_events";
+
+    /**
+     * Ключ advisory-блокировки обслуживания секций outbox_events
+     */
+    private static final long PARTITION_MAINTENANCE_LOCK = 0x6f7574626f78L;
+
+    /**
+     * Секция DEFAULT (changeset 003_partition_outbox_events) для событий вне диапазонов дневных секций
+     */
+    private static final String DEFAULT_PARTITION = "outbox_events_default";
+
+    /**
+     * Верхняя граница секции в выводе pg_get_expr: FOR VALUES FROM (...) TO ('2024-01-02 00:00:00')
+     */
+    private static final Pattern PARTITION_UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public OutboxEventJdbcRepositoryImpl(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    @Override
+    public int markAsProcessedBatch(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "UPDATE outbox_events SET processed = true, processed_at = CURRENT_TIMESTAMP WHERE id = ANY(?)";
+
+        return namedParameterJdbcTemplate.getJdbcTemplate().update(sql, ps ->
+                ps.setArray(1, ps.getConnection().createArrayOf("text", ids.toArray())));
+    }
+
+    @Override
+    public void insertBatch(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        String sql = """
+            INSERT INTO outbox_events (id, aggregate_id, aggregate_type, event_type, payload, routing_key, exchange_name, processed, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, false, ?)
+            """;
+
+        namedParameterJdbcTemplate.getJdbcTemplate().batchUpdate(sql, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getId().toString());
+            ps.setString(2, event.getAggregateId());
+            ps.setString(3, event.getAggregateType());
+            ps.setString(4, event.getEventType());
+            ps.setString(5, event.getPayload());
+            ps.setString(6, event.getRoutingKey());
+            ps.setString(7, event.getExchange());
+            ps.setTimestamp(8, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+
+    @Override
+    public void notifyNewEvents() {
+        namedParameterJdbcTemplate.getJdbcTemplate().execute("NOTIFY " + NOTIFY_CHANNEL);
+    }
+
+    @Override
+    public void recordFailures(List<OutboxFailure> failures, int maxAttempts, long initialDelayMs, long maxDelayMs) {
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        // Строка либо переносится (DELETE), либо обновляется (UPDATE): условия по attempts не пересекаются
+        String sql = """
+            WITH dead AS (
+                DELETE FROM outbox_events
+                WHERE id = ? AND processed = false AND attempts + 1 >= ?
+                RETURNING *
+            ), moved AS (
+                INSERT INTO outbox_dead_letter (id, aggregate_id, aggregate_type, event_type, payload, routing_key, exchange_name,
+                                                created_at, attempts, last_error)
+                SELECT id, aggregate_id, aggregate_type, event_type, payload, routing_key, exchange_name,
+                       created_at, attempts + 1, ?
+                FROM dead
+            )
+            UPDATE outbox_events
+            SET attempts = attempts + 1,
+                last_error = ?,
+                next_attempt_at = CURRENT_TIMESTAMP + make_interval(secs => LEAST(?, ? * power(2, attempts)) / 1000.0)
+            WHERE id = ? AND processed = false AND attempts + 1 < ?
+            """;
+
+        namedParameterJdbcTemplate.getJdbcTemplate().batchUpdate(sql, failures, failures.size(), (ps, failure) -> {
+            ps.setString(1, failure.id());
+            ps.setInt(2, maxAttempts);
+            ps.setString(3, failure.error());
+            ps.setString(4, failure.error());
+            ps.setLong(5, maxDelayMs);
+            ps.setLong(6, initialDelayMs);
+            ps.setString(7, failure.id());
+            ps.setInt(8, maxAttempts);
+        });
+    }
+
+    @Override
+    public List<OutboxDeadLetter> findDeadLetters(int limit) {
+        String sql = """
+            SELECT id, aggregate_id, aggregate_type, event_type, exchange_name, routing_key, payload,
+                   created_at, attempts, last_error, dead_at
+            FROM outbox_dead_letter
+            ORDER BY dead_at DESC
+            LIMIT ?
+            """;
+
+        return namedParameterJdbcTemplate.getJdbcTemplate().query(sql, (rs, rowNum) -> new OutboxDeadLetter(
+                rs.getString("id"),
+                rs.getString("aggregate_id"),
+                rs.getString("aggregate_type"),
+                rs.getString("event_type"),
+                rs.getString("exchange_name"),
+                rs.getString("routing_key"),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getInt("attempts"),
+                rs.getString("last_error"),
+                rs.getTimestamp("dead_at").toLocalDateTime()
+        ), limit);
+    }
+
+    @Override
+    public boolean replayDeadLetter(String id) {
+        return namedParameterJdbcTemplate.getJdbcTemplate().update(replaySql("WHERE id = ?"), id) > 0;
+    }
+
+    @Override
+    public int replayDeadLetters() {
+        return namedParameterJdbcTemplate.getJdbcTemplate().update(replaySql(""));
+    }
+
+    /**
+     * Перенос событий из outbox_dead_letter в outbox_events. Время создания возвращенных событий строго возрастает
+     * в порядке исходного created_at, чтобы события одного агрегата отправлялись в исходном порядке
+     */
+    private static String replaySql(String where) {
+        return """
+            WITH replayed AS (
+                DELETE FROM outbox_dead_letter %s
+                RETURNING *
+            )
+            INSERT INTO outbox_events (id, aggregate_id, aggregate_type, event_type, payload, routing_key, exchange_name,
+                                       processed, created_at)
+            SELECT id, aggregate_id, aggregate_type, event_type, payload, routing_key, exchange_name,
+                   false, CURRENT_TIMESTAMP + make_interval(secs => (row_number() OVER (ORDER BY created_at)) / 1000000.0)
+            FROM replayed
+            """.formatted(where);
+    }
+
+    @Override
+    public OutboxBacklog findBacklog() {
+        String sql = "SELECT COUNT(*) AS size, MIN(created_at) AS oldest_created_at FROM outbox_events WHERE processed = false";
+
+        return namedParameterJdbcTemplate.getJdbcTemplate().queryForObject(sql, (rs, rowNum) -> {
+            Timestamp oldest = rs.getTimestamp("oldest_created_at");
+            return new OutboxBacklog(rs.getLong("size"), oldest != null ? oldest.toLocalDateTime() : null);
+        });
+    }
+
+    @Override
+    public List<OutboxPartition> findPartitions() {
+        String sql = """
+            SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'outbox_events'::regclass
+            ORDER BY c.relname
+            """;
+
+        List<OutboxPartition> partitions = new ArrayList<>();
+        namedParameterJdbcTemplate.getJdbcTemplate().query(sql, rs -> {
+            Matcher matcher = PARTITION_UPPER_BOUND.matcher(rs.getString("bound"));
+            if (matcher.find()) {
+                partitions.add(new OutboxPartition(rs.getString("name"), Timestamp.valueOf(matcher.group(1)).toLocalDateTime()));
+            }
+        });
+        return partitions;
+    }
+
+    @Override
+    public void createPartition(String name, LocalDate from, LocalDate to) {
+        namedParameterJdbcTemplate.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS " + quote(name)
+                + " PARTITION OF outbox_events FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    @Override
+    public boolean hasUnprocessedEvents(String partition) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM " + quote(partition) + " WHERE processed = false)";
+        return Boolean.TRUE.equals(namedParameterJdbcTemplate.getJdbcTemplate().queryForObject(sql, Boolean.class));
+    }
+
+    @Override
+    public void removePartition(String partition, boolean drop) {
+        namedParameterJdbcTemplate.getJdbcTemplate().execute("ALTER TABLE outbox_events DETACH PARTITION " + quote(partition));
+        if (drop) {
+            namedParameterJdbcTemplate.getJdbcTemplate().execute("DROP TABLE " + quote(partition));
+        }
+    }
+
+    @Override
+    public int purgeDefaultPartition(LocalDateTime processedBefore) {
+        return namedParameterJdbcTemplate.getJdbcTemplate().update("DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE processed = true AND created_at < ?", Timestamp.valueOf(processedBefore));
+    }
+
+    @Override
+    public long countDefaultPartitionEvents() {
+        Long count = namedParameterJdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM " + DEFAULT_PARTITION, Long.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public boolean tryLockPartitionMaintenance(long lockTimeoutMs) {
+        JdbcTemplate jdbcTemplate = namedParameterJdbcTemplate.getJdbcTemplate();
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, PARTITION_MAINTENANCE_LOCK))) {
+            return false;
+        }
+
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class, lockTimeoutMs + "ms");
+        return true;
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+}
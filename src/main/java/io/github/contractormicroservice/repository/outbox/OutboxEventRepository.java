@@ -6,20 +6,97 @@ import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Репозиторий для работы с таблицей Outbox
  */
 @Repository
-public interface OutboxEventRepository extends CrudRepository<OutboxEvent, Long> {
+public interface OutboxEventRepository extends CrudRepository<OutboxEvent, Long>, OutboxEventJdbcRepository {
 
     @Query("SELECT * FROM outbox_events WHERE processed = false ORDER BY created_at ASC LIMIT 100")
     List<OutboxEvent> findUnprocessedEvents();
 
+    /**
+     * Захватывает (claim) пачку событий для отправки экземпляром сервиса workerId на leaseSeconds секунд.
+     * Строки-"головы" агрегатов блокируются через FOR UPDATE SKIP LOCKED, поэтому параллельные экземпляры
+     * делят очередь между собой, а не отправляют одни и те же события. Вместе с "головой" захватываются
+     * все последующие события того же агрегата, чтобы события одного агрегата отправлял один экземпляр по порядку.
+     * Агрегат, "голова" которого ждет повторной попытки (next_attempt_at), пропускается и не занимает место в пачке
+     */
+    @Query("""
+            WITH heads AS (
+                SELECT e.id, e.aggregate_id FROM outbox_events e
+                WHERE e.processed = false
+                  AND (e.lease_expires_at IS NULL OR e.lease_expires_at < CURRENT_TIMESTAMP)
+                  AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= CURRENT_TIMESTAMP)
+                  AND NOT EXISTS (
+                      SELECT 1 FROM outbox_events p
+                      WHERE p.aggregate_id = e.aggregate_id
+                        AND p.processed = false
+                        AND p.created_at < e.created_at)
+                ORDER BY e.created_at ASC
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ), claimed AS (
+                UPDATE outbox_events o
+                SET claimed_by = :workerId,
+                    lease_expires_at = CURRENT_TIMESTAMP + make_interval(secs => :leaseSeconds)
+                WHERE o.processed = false
+                  AND o.aggregate_id IN (SELECT h.aggregate_id FROM heads h)
+                  AND (o.lease_expires_at IS NULL OR o.lease_expires_at < CURRENT_TIMESTAMP)
+                RETURNING o.*
+            )
+            SELECT * FROM claimed ORDER BY created_at ASC
+            """)
+    List<OutboxEvent> claimEvents(String workerId, int leaseSeconds, int limit);
+
+    /**
+     * Захватывает события с переданными id (прочитанные из WAL) так же, как claimEvents, чтобы их не отправил
+     * параллельно опрос. Агрегат пропускается целиком, если у него есть более раннее необработанное событие
+     * вне переданных, захваченное кем-то или ожидающее повторной попытки событие: такие события отправит опрос по порядку
+     */
+    @Query("""
+            WITH batch AS (
+                SELECT e.aggregate_id, e.created_at, e.lease_expires_at, e.next_attempt_at FROM outbox_events e
+                WHERE e.id IN (:ids) AND e.processed = false
+            ), blocked AS (
+                SELECT b.aggregate_id FROM batch b
+                WHERE b.lease_expires_at >= CURRENT_TIMESTAMP
+                   OR b.next_attempt_at > CURRENT_TIMESTAMP
+                   OR EXISTS (
+                       SELECT 1 FROM outbox_events p
+                       WHERE p.aggregate_id = b.aggregate_id
+                         AND p.processed = false
+                         AND p.created_at < b.created_at
+                         AND p.id NOT IN (:ids))
+            ), claimed AS (
+                UPDATE outbox_events o
+                SET claimed_by = :workerId,
+                    lease_expires_at = CURRENT_TIMESTAMP + make_interval(secs => :leaseSeconds)
+                WHERE o.id IN (:ids)
+                  AND o.processed = false
+                  AND (o.lease_expires_at IS NULL OR o.lease_expires_at < CURRENT_TIMESTAMP)
+                  AND o.aggregate_id NOT IN (SELECT bl.aggregate_id FROM blocked bl)
+                RETURNING o.*
+            )
+            SELECT * FROM claimed ORDER BY created_at ASC
+            """)
+    List<OutboxEvent> claimEventsByIds(Collection<String> ids, String workerId, int leaseSeconds);
+
     @Modifying
     @Query("UPDATE outbox_events SET processed = true, processed_at = CURRENT_TIMESTAMP WHERE id = :id")
     void markAsProcessed(String id);
 
+    /**
+     * Снимает захват с неотправленных событий, чтобы они были доступны для повторной отправки без ожидания lease
+     */
+    @Modifying
+    @Query("""
+            UPDATE outbox_events SET claimed_by = NULL, lease_expires_at = NULL
+            WHERE id IN (:ids) AND claimed_by = :workerId AND processed = false
+            """)
+    void releaseClaims(Collection<String> ids, String workerId);
+
 }
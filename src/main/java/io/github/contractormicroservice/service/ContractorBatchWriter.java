@@ -0,0 +1,198 @@
+package io.github.contractormicroservice.service;
+
+import io.github.contractormicroservice.cache.ContractorCache;
+import io.github.contractormicroservice.cache.ReferenceDataRegistry;
+import io.github.contractormicroservice.model.dto.ContractorBatchItem;
+import io.github.contractormicroservice.model.dto.ContractorBatchResult;
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.dto.OutboxEventRequest;
+import io.github.contractormicroservice.model.entity.Contractor;
+import io.github.contractormicroservice.repository.contractor.ContractorRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Запись одной пачки контрагентов в рамках одной транзакции за фиксированное число запросов:
+ * проверка существования контрагентов и их родителей одним запросом (справочники - в памяти через ReferenceDataRegistry),
+ * upsert одним JDBC batch и события outbox одним JDBC batch
+ */
+@Component
+public class ContractorBatchWriter {
+
+    @Value("${application.rabbit.contractors.exchange:contractors_contractor_exchange}")
+    private String contractorsContractorExchange;
+
+    @Value("${application.rabbit.contractors.routing-key:contractor.updated}")
+    private String contractorsRoutingKey;
+
+    private final ContractorRepository contractorRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final OutboxService outboxService;
+    private final Validator validator;
+    private final ContractorCache contractorCache;
+
+    public ContractorBatchWriter(ContractorRepository contractorRepository, ReferenceDataRegistry referenceDataRegistry,
+                                 OutboxService outboxService, Validator validator, ContractorCache contractorCache) {
+        this.contractorRepository = contractorRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.outboxService = outboxService;
+        this.validator = validator;
+        this.contractorCache = contractorCache;
+    }
+
+    /**
+     * Сохраняет пачку контрагентов. Некорректные элементы пропускаются с результатом FAILED,
+     * остальные сохраняются вместе со своими событиями outbox.
+     * Родитель (parent_id) должен существовать в БД или быть сохранен в этой же пачке:
+     * элементы сохраняются родителями вперед, элементы с неизвестным родителем получают FAILED
+     * @param items - элементы пачки
+     * @return результаты в порядке элементов
+     */
+    @Transactional("transactionManager")
+    public List<ContractorBatchResult> write(List<ContractorBatchItem> items) {
+        ContractorBatchResult[] results = new ContractorBatchResult[items.size()];
+        List<Integer> valid = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            ContractorBatchItem item = items.get(i);
+            String error = item.error() != null ? item.error() : validate(item.contractor());
+            if (error == null) {
+                ContractorDTO dto = item.contractor();
+                error = referenceDataRegistry.findMissingReference(dto.getCountry(), dto.getIndustry(), dto.getOrgForm());
+            }
+            if (error != null) {
+                results[i] = ContractorBatchResult.failed(item.index(), item.contractor() != null ? item.contractor().getId() : null, error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (int i : valid) {
+            ContractorDTO dto = items.get(i).contractor();
+            ids.add(dto.getId());
+            String parentId = sanitize(dto.getParentId());
+            if (parentId != null) {
+                ids.add(parentId);
+            }
+        }
+        Set<String> existing = contractorRepository.findExistingIds(ids);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Contractor> contractors = new ArrayList<>(valid.size());
+        List<OutboxEventRequest> events = new ArrayList<>(valid.size());
+        Set<String> seen = new HashSet<>(existing);
+
+        for (int i : parentsFirst(items, valid, existing)) {
+            ContractorBatchItem item = items.get(i);
+            ContractorDTO dto = item.contractor();
+
+            Contractor contractor = Contractor.builder()
+                    .id(dto.getId())
+                    .parentId(sanitize(dto.getParentId()))
+                    .name(sanitize(dto.getName()))
+                    .nameFull(sanitize(dto.getNameFull()))
+                    .inn(sanitize(dto.getInn()))
+                    .ogrn(sanitize(dto.getOgrn()))
+                    .country(dto.getCountry())
+                    .industry(dto.getIndustry())
+                    .orgForm(dto.getOrgForm())
+                    .createDate(now)
+                    .modifyDate(now)
+                    .build();
+            contractors.add(contractor);
+
+            // Повтор id внутри пачки - обновление записи, вставленной предыдущим элементом
+            boolean created = seen.add(dto.getId());
+            String eventType = created ? "CREATED" : "UPDATED";
+            events.add(new OutboxEventRequest(contractor.getId(), "Contractor", eventType, ContractorDTO.from(contractor),
+                    contractorsContractorExchange, contractorsRoutingKey));
+
+            results[i] = new ContractorBatchResult(item.index(), dto.getId(),
+                    created ? ContractorBatchResult.Status.CREATED : ContractorBatchResult.Status.UPDATED, null);
+        }
+
+        for (int i : valid) {
+            if (results[i] == null) {
+                ContractorDTO dto = items.get(i).contractor();
+                results[i] = ContractorBatchResult.failed(items.get(i).index(), dto.getId(),
+                        "Parent contractor not found with id: " + sanitize(dto.getParentId()));
+            }
+        }
+
+        contractorRepository.upsertBatch(contractors);
+        outboxService.saveOutboxEvents(events);
+        contractorCache.evictAll(contractors.stream().map(Contractor::getId).collect(Collectors.toSet()));
+
+        return List.of(results);
+    }
+
+    /**
+     * Порядок сохранения, при котором родитель каждого элемента уже есть в БД или сохранен раньше него
+     * (иначе upsert нарушит fk_contractor_parent и откатит всю пачку).
+     * Элементы с одинаковым id сохраняются в исходном порядке
+     * @param valid - индексы элементов, прошедших проверки
+     * @param existing - id, уже существующие в БД
+     * @return индексы элементов к сохранению; элементы с неизвестным родителем в него не входят
+     */
+    private List<Integer> parentsFirst(List<ContractorBatchItem> items, List<Integer> valid, Set<String> existing) {
+        List<Integer> ordered = new ArrayList<>(valid.size());
+        Set<String> resolved = new HashSet<>(existing);
+        List<Integer> pending = valid;
+
+        while (!pending.isEmpty()) {
+            List<Integer> deferred = new ArrayList<>();
+            Set<String> deferredIds = new HashSet<>();
+            for (int i : pending) {
+                ContractorDTO dto = items.get(i).contractor();
+                String parentId = sanitize(dto.getParentId());
+                boolean parentResolved = parentId == null || parentId.equals(dto.getId()) || resolved.contains(parentId);
+                if (parentResolved && !deferredIds.contains(dto.getId())) {
+                    ordered.add(i);
+                    resolved.add(dto.getId());
+                } else {
+                    deferred.add(i);
+                    deferredIds.add(dto.getId());
+                }
+            }
+
+            if (deferred.size() == pending.size()) {
+                break;
+            }
+            pending = deferred;
+        }
+        return ordered;
+    }
+
+    private String validate(ContractorDTO contractor) {
+        if (contractor == null) {
+            return "Пустой элемент";
+        }
+
+        Set<ConstraintViolation<ContractorDTO>> violations = validator.validate(contractor);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private String sanitize(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+}
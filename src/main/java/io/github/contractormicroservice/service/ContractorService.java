@@ -1,10 +1,17 @@
 package io.github.contractormicroservice.service;
 
+import io.github.contractormicroservice.model.dto.ContractorBatchItem;
+import io.github.contractormicroservice.model.dto.ContractorBatchResult;
 import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.dto.ContractorHierarchyNode;
 import io.github.contractormicroservice.model.entity.Contractor;
 import io.github.contractormicroservice.model.entity.ContractorFilter;
 import io.github.contractormicroservice.model.entity.Pagination;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Интерфейс сервиса для работы со странами
  */
@@ -17,6 +24,13 @@ public interface ContractorService {
      */
     Contractor getOne(String id);
 
+    /**
+     * Получить контрагентов по списку id (из кэша по id, отсутствующие в кэше - одним запросом)
+     * @param ids - идентификаторы контрагентов, повторы игнорируются
+     * @return найденные контрагенты в порядке ids, несуществующие id пропускаются
+     */
+    List<Contractor> getAll(List<String> ids);
+
     /**
      * Логически удалить контрагента
      * @param id идентификатор контрагента
@@ -31,6 +45,21 @@ public interface ContractorService {
      */
     Contractor save(ContractorDTO contractorDTO);
 
+    /**
+     * Пакетно сохранить или обновить контрагентов
+     * @param contractors - данные контрагентов
+     * @return результаты по каждому контрагенту в порядке входных данных
+     */
+    List<ContractorBatchResult> saveBatch(List<ContractorDTO> contractors);
+
+    /**
+     * Пакетно сохранить или обновить поток контрагентов. Каждая пачка сохраняется в своей транзакции,
+     * результаты пачки передаются в results сразу после ее commit
+     * @param items - элементы входного потока
+     * @param results - получатель результатов
+     */
+    void saveBatch(Iterator<ContractorBatchItem> items, Consumer<List<ContractorBatchResult>> results);
+
     /**
      * Сохранить или обновить контрагента
      * @param searchRequest - фильтр поиска
@@ -40,4 +69,36 @@ public interface ContractorService {
      */
     Pagination searchContractors(ContractorFilter searchRequest, Integer page, Integer limit);
 
+    /**
+     * Поиск контрагентов с keyset-пагинацией (стоимость не зависит от глубины страницы)
+     * @param searchRequest - фильтр поиска
+     * @param cursor - курсор из предыдущей страницы (пустой - первая страница)
+     * @param limit - количество контрагентов на странице
+     * @return страница контрагентов с курсором следующей страницы
+     */
+    Pagination searchContractorsAfter(ContractorFilter searchRequest, String cursor, Integer limit);
+
+    /**
+     * Выгрузить всех активных контрагентов по фильтру (без ограничения количества) одним запросом
+     * @param searchRequest - фильтр поиска
+     * @param consumer - обработчик каждого контрагента в порядке id
+     */
+    void exportContractors(ContractorFilter searchRequest, Consumer<Contractor> consumer);
+
+    /**
+     * Выгрузить поддерево контрагента (сам контрагент и активные потомки) одним рекурсивным запросом
+     * @param id - идентификатор контрагента
+     * @param depth - максимальная глубина (null - hierarchy.max-depth)
+     * @param consumer - обработчик каждого контрагента в порядке обхода в глубину
+     */
+    void exportSubtree(String id, Integer depth, Consumer<ContractorHierarchyNode> consumer);
+
+    /**
+     * Выгрузить цепочку родителей контрагента от него самого до корня
+     * @param id - идентификатор контрагента
+     * @param depth - максимальное количество уровней вверх (null - hierarchy.max-depth)
+     * @param consumer - обработчик каждого контрагента в порядке удаления от исходного
+     */
+    void exportAncestors(String id, Integer depth, Consumer<ContractorHierarchyNode> consumer);
+
 }
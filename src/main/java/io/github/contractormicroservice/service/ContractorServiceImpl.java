@@ -1,21 +1,33 @@
 package io.github.contractormicroservice.service;
 
+import io.github.contractormicroservice.cache.ContractorCache;
+import io.github.contractormicroservice.cache.ReferenceDataRegistry;
+import io.github.contractormicroservice.exception.BatchLimitExceededException;
 import io.github.contractormicroservice.exception.EntityNotFoundException;
+import io.github.contractormicroservice.model.dto.ContractorBatchItem;
+import io.github.contractormicroservice.model.dto.ContractorBatchResult;
 import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.dto.ContractorHierarchyNode;
 import io.github.contractormicroservice.model.entity.Contractor;
+import io.github.contractormicroservice.model.entity.ContractorCursor;
 import io.github.contractormicroservice.model.entity.ContractorFilter;
 import io.github.contractormicroservice.model.entity.Pagination;
 import io.github.contractormicroservice.repository.contractor.ContractorRepository;
-import io.github.contractormicroservice.repository.country.CountryRepository;
-import io.github.contractormicroservice.repository.industry.IndustryRepository;
-import io.github.contractormicroservice.repository.orgForm.OrgFormRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class ContractorServiceImpl implements ContractorService {
@@ -26,32 +38,72 @@ public class ContractorServiceImpl implements ContractorService {
     @Value("${application.rabbit.contractors.routing-key:contractor.updated}")
     private String contractorsRoutingKey;
 
+    /**
+     * Количество контрагентов, сохраняемых одной транзакцией при пакетной загрузке
+     */
+    @Value("${application.contractor.batch.chunk-size:1000}")
+    private int batchChunkSize = 1000;
+
+    /**
+     * Максимальная глубина обхода иерархии контрагентов (она же глубина по умолчанию)
+     */
+    @Value("${application.contractor.hierarchy.max-depth:100}")
+    private int hierarchyMaxDepth = 100;
+
+    /**
+     * Максимальное количество id в одном запросе POST /batch-get
+     */
+    @Value("${application.contractor.batch-get.max-ids:1000}")
+    private int batchGetMaxIds = 1000;
+
     private final ContractorRepository contractorRepository;
-    private final CountryRepository countryRepository;
-    private final IndustryRepository industryRepository;
-    private final OrgFormRepository orgFormRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
     private final OutboxService outboxService;
+    private final ContractorBatchWriter batchWriter;
+    private final ContractorCache contractorCache;
 
     public ContractorServiceImpl(ContractorRepository contractorRepository,
-                                 CountryRepository countryRepository,
-                                 IndustryRepository industryRepository,
-                                 OrgFormRepository orgFormRepository, OutboxService outboxService) {
+                                 ReferenceDataRegistry referenceDataRegistry,
+                                 OutboxService outboxService,
+                                 ContractorBatchWriter batchWriter,
+                                 ContractorCache contractorCache) {
         this.contractorRepository = contractorRepository;
-        this.countryRepository = countryRepository;
-        this.industryRepository = industryRepository;
-        this.orgFormRepository = orgFormRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
         this.outboxService = outboxService;
+        this.batchWriter = batchWriter;
+        this.contractorCache = contractorCache;
     }
 
     public Contractor getOne(String id) {
-        return contractorRepository.findByIdWithDetails(id)
+        return contractorCache.get(id, contractorRepository::findByIdWithDetails)
                 .orElseThrow(() -> new EntityNotFoundException("Contractor not found with id: " + id));
     }
 
+    public List<Contractor> getAll(List<String> ids) {
+        Set<String> uniqueIds = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (StringUtils.hasText(id)) {
+                uniqueIds.add(id);
+            }
+        }
+
+        if (uniqueIds.size() > batchGetMaxIds) {
+            throw new BatchLimitExceededException("Too many contractor ids: " + uniqueIds.size() + ", max " + batchGetMaxIds);
+        }
+
+        Map<String, Contractor> found = contractorCache.getAll(uniqueIds, contractorRepository::findAllByIdWithDetails);
+        return uniqueIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     public Contractor deleteOne(String id) {
         Contractor contractor = contractorRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Contractor not found with id: " + id));
         contractor.setIsActive(false);
-        return contractorRepository.save(contractor);
+        Contractor deleted = contractorRepository.save(contractor);
+        contractorCache.evict(id);
+        return deleted;
     }
 
     @Transactional("transactionManager")
@@ -95,6 +147,7 @@ public class ContractorServiceImpl implements ContractorService {
         validateFK(newContractor);
 
         Contractor savedContractor = contractorRepository.save(newContractor);
+        contractorCache.evict(savedContractor.getId());
 
         ContractorDTO messageDTO = ContractorDTO.from((savedContractor));
 
@@ -113,6 +166,32 @@ public class ContractorServiceImpl implements ContractorService {
 
     }
 
+    public List<ContractorBatchResult> saveBatch(List<ContractorDTO> contractors) {
+        List<ContractorBatchItem> items = new ArrayList<>(contractors.size());
+        for (int i = 0; i < contractors.size(); i++) {
+            items.add(ContractorBatchItem.of(i, contractors.get(i)));
+        }
+
+        List<ContractorBatchResult> results = new ArrayList<>(contractors.size());
+        saveBatch(items.iterator(), results::addAll);
+        return results;
+    }
+
+    public void saveBatch(Iterator<ContractorBatchItem> items, Consumer<List<ContractorBatchResult>> results) {
+        List<ContractorBatchItem> chunk = new ArrayList<>(batchChunkSize);
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == batchChunkSize) {
+                results.accept(batchWriter.write(chunk));
+                chunk = new ArrayList<>(batchChunkSize);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            results.accept(batchWriter.write(chunk));
+        }
+    }
+
     /**
      * Метод для проверки на пустую строку (если строка пустая, то возвращаем null для вставки в БД)
      * @param value - проверяемая строка
@@ -136,29 +215,51 @@ public class ContractorServiceImpl implements ContractorService {
         return contractorRepository.searchContractors(searchRequest, page, limit);
     }
 
+    @Transactional
+    public Pagination searchContractorsAfter(ContractorFilter searchRequest, String cursor, Integer limit) {
+
+        if (limit <= 0 || limit > 100) {
+            limit = 10;
+        }
+
+        return contractorRepository.searchContractorsAfter(searchRequest, ContractorCursor.decode(cursor), limit);
+    }
+
     /**
-     * Валидация существования связанных сущностей при сохранении
-     * @param contractor - входная сущность
+     * Транзакция нужна для серверного курсора: в autocommit драйвер PostgreSQL игнорирует fetch size
      */
-    private void validateFK(Contractor contractor) {
-        if (contractor.getCountry() != null && !contractor.getCountry().isEmpty()) {
-            if (!countryRepository.existsById(contractor.getCountry())) {
-                throw new EntityNotFoundException("Country not found with id: " + contractor.getCountry());
-            }
-        }
+    @Transactional(value = "transactionManager", readOnly = true)
+    public void exportContractors(ContractorFilter searchRequest, Consumer<Contractor> consumer) {
+        contractorRepository.streamContractors(searchRequest, consumer);
+    }
 
-        if (contractor.getIndustry() != null) {
-            if (!industryRepository.existsById(contractor.getIndustry())) {
-                throw new EntityNotFoundException("Industry not found with id: " + contractor.getIndustry());
-            }
-        }
+    @Transactional(value = "transactionManager", readOnly = true)
+    public void exportSubtree(String id, Integer depth, Consumer<ContractorHierarchyNode> consumer) {
+        contractorRepository.streamSubtree(id, hierarchyDepth(depth), consumer);
+    }
 
-        if (contractor.getOrgForm() != null) {
-            if (!orgFormRepository.existsById(contractor.getOrgForm())) {
-                throw new EntityNotFoundException("Org form not found with id: " + contractor.getOrgForm());
-            }
+    @Transactional(value = "transactionManager", readOnly = true)
+    public void exportAncestors(String id, Integer depth, Consumer<ContractorHierarchyNode> consumer) {
+        contractorRepository.streamAncestors(id, hierarchyDepth(depth), consumer);
+    }
+
+    private int hierarchyDepth(Integer depth) {
+        if (depth == null || depth < 0 || depth > hierarchyMaxDepth) {
+            return hierarchyMaxDepth;
         }
+        return depth;
+    }
 
+    /**
+     * Валидация существования связанных сущностей при сохранении
+     * @param contractor - входная сущность
+     */
+    private void validateFK(Contractor contractor) {
+        String missingReference = referenceDataRegistry.findMissingReference(
+                contractor.getCountry(), contractor.getIndustry(), contractor.getOrgForm());
+        if (missingReference != null) {
+            throw new EntityNotFoundException(missingReference);
+        }
     }
 
 }
@@ -1,5 +1,7 @@
 package io.github.contractormicroservice.service;
 
+import io.github.contractormicroservice.cache.ContractorCache;
+import io.github.contractormicroservice.cache.ReferenceDataRegistry;
 import io.github.contractormicroservice.exception.EntityNotFoundException;
 import io.github.contractormicroservice.model.dto.CountryDTO;
 import io.github.contractormicroservice.model.entity.Country;
@@ -18,12 +20,17 @@ import java.util.Optional;
 public class CountryServiceImpl implements CountryService {
 
     private final CountryRepository countryRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final ContractorCache contractorCache;
 
-    public CountryServiceImpl(CountryRepository countryRepository) {
+    public CountryServiceImpl(CountryRepository countryRepository, ReferenceDataRegistry referenceDataRegistry,
+                              ContractorCache contractorCache) {
         this.countryRepository = countryRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.contractorCache = contractorCache;
     }
 
-    @Cacheable(value = "countries", key = "'all'")
+    @Cacheable(value = "countries", key = "'all'", sync = true)
     public List<CountryDTO> getAllActive() {
         List<Country> countries = countryRepository.findAllActive();
         return CountryDTO.fromEntityList(countries);
@@ -41,6 +48,8 @@ public class CountryServiceImpl implements CountryService {
                 .orElseThrow(() -> new EntityNotFoundException("Country not found with id: " + id));
         country.setActive(false);
         countryRepository.save(country);
+        referenceDataRegistry.invalidate();
+        contractorCache.clear();
         return CountryDTO.fromEntity(country);
     }
 
@@ -52,6 +61,8 @@ public class CountryServiceImpl implements CountryService {
         if (country.isPresent()) {
             country.get().setName(countryDTO.getName());
             countryRepository.save(country.get());
+            referenceDataRegistry.invalidate();
+            contractorCache.clear();
             return CountryDTO.fromEntity(country.get());
         } else {
             Country newCountry = Country.builder()
@@ -59,6 +70,8 @@ public class CountryServiceImpl implements CountryService {
                     .name(countryDTO.getName())
                     .build();
             countryRepository.save(newCountry);
+            referenceDataRegistry.invalidate();
+            contractorCache.clear();
             return CountryDTO.fromEntity(newCountry);
         }
 
@@ -1,5 +1,7 @@
 package io.github.contractormicroservice.service;
 
+import io.github.contractormicroservice.cache.ContractorCache;
+import io.github.contractormicroservice.cache.ReferenceDataRegistry;
 import io.github.contractormicroservice.exception.EntityNotFoundException;
 import io.github.contractormicroservice.model.dto.IndustryDTO;
 import io.github.contractormicroservice.model.entity.Industry;
@@ -18,12 +20,17 @@ import java.util.Optional;
 public class IndustryServiceImpl implements IndustryService {
 
     private final IndustryRepository industryRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final ContractorCache contractorCache;
 
-    public IndustryServiceImpl(IndustryRepository industryRepository) {
+    public IndustryServiceImpl(IndustryRepository industryRepository, ReferenceDataRegistry referenceDataRegistry,
+                               ContractorCache contractorCache) {
         this.industryRepository = industryRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.contractorCache = contractorCache;
     }
 
-    @Cacheable(value = "industries", key = "'all'")
+    @Cacheable(value = "industries", key = "'all'", sync = true)
     public List<IndustryDTO> getAllActive() {
         List<Industry> industries = industryRepository.findAllActive();
         return IndustryDTO.fromEntityList(industries);
@@ -41,6 +48,8 @@ public class IndustryServiceImpl implements IndustryService {
                 .orElseThrow(() -> new EntityNotFoundException("Industry not found with id: " + id));
         industry.setActive(false);
         industryRepository.save(industry);
+        referenceDataRegistry.invalidate();
+        contractorCache.clear();
         return IndustryDTO.fromEntity(industry);
     }
 
@@ -54,6 +63,8 @@ public class IndustryServiceImpl implements IndustryService {
             if (existingIndustry.isPresent()) {
                 existingIndustry.get().setName(industryDTO.getName());
                 industryRepository.save(existingIndustry.get());
+                referenceDataRegistry.invalidate();
+                contractorCache.clear();
                 return IndustryDTO.fromEntity(existingIndustry.get());
             } else {
                 throw new EntityNotFoundException("Industry not found with id: " + industryDTO.getId());
@@ -63,6 +74,8 @@ public class IndustryServiceImpl implements IndustryService {
                 .name(industryDTO.getName())
                 .build();
         Industry savedIndustry = industryRepository.save(newIndustry);
+        referenceDataRegistry.invalidate();
+        contractorCache.clear();
         return IndustryDTO.fromEntity(savedIndustry);
     }
 
@@ -0,0 +1,58 @@
+package io.github.contractormicroservice.service;
+
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Отправка Outbox-событий в Kafka: назначение события (exchange) - топик, aggregateId - ключ сообщения,
+ * поэтому все события агрегата попадают в одну секцию топика и читаются в порядке создания.
+ * Обслуживает только назначения из application.outbox.kafka.destinations
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "application.outbox.kafka.enabled", havingValue = "true")
+public class KafkaOutboxTransport implements OutboxTransport {
+
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final Set<String> destinations;
+
+    public KafkaOutboxTransport(KafkaTemplate<String, String> outboxKafkaTemplate,
+                                @Value("${application.outbox.kafka.destinations:}") Set<String> destinations) {
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.destinations = Set.copyOf(destinations);
+    }
+
+    @Override
+    public boolean supports(String destination) {
+        return destinations.contains(destination);
+    }
+
+    /**
+     * Сеанс не нужен: отправки копятся продюсером в пачки (linger.ms, batch.size) и подтверждаются асинхронно
+     */
+    @Override
+    public <T> T execute(Function<Sender, T> callback) {
+        return callback.apply(this::send);
+    }
+
+    private CompletableFuture<Confirm> send(OutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(event.getExchange(), event.getAggregateId(), event.getPayload());
+        record.headers().add("messageId", event.getId().toString().getBytes(StandardCharsets.UTF_8));
+        if (event.getEventType() != null) {
+            record.headers().add("eventType", event.getEventType().getBytes(StandardCharsets.UTF_8));
+        }
+
+        return outboxKafkaTemplate.send(record).thenApply(result -> new Confirm(true, null));
+    }
+
+}
@@ -1,5 +1,7 @@
 package io.github.contractormicroservice.service;
 
+import io.github.contractormicroservice.cache.ContractorCache;
+import io.github.contractormicroservice.cache.ReferenceDataRegistry;
 import io.github.contractormicroservice.exception.EntityNotFoundException;
 import io.github.contractormicroservice.model.dto.OrgFormDTO;
 import io.github.contractormicroservice.model.entity.OrgForm;
@@ -18,12 +20,17 @@ import java.util.Optional;
 public class OrgFormServiceImpl implements OrgFormService {
 
     private final OrgFormRepository orgFormRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final ContractorCache contractorCache;
 
-    public OrgFormServiceImpl(OrgFormRepository orgFormRepository) {
+    public OrgFormServiceImpl(OrgFormRepository orgFormRepository, ReferenceDataRegistry referenceDataRegistry,
+                              ContractorCache contractorCache) {
         this.orgFormRepository = orgFormRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.contractorCache = contractorCache;
     }
 
-    @Cacheable(value = "orgForms", key = "'all'")
+    @Cacheable(value = "orgForms", key = "'all'", sync = true)
     public List<OrgFormDTO> getAllActive() {
         List<OrgForm> orgForms = orgFormRepository.findAllActive();
         return OrgFormDTO.fromEntityList(orgForms);
@@ -41,6 +48,8 @@ public class OrgFormServiceImpl implements OrgFormService {
                 .orElseThrow(() -> new EntityNotFoundException("OrgForm not found with id: " + id));
         orgForm.setActive(false);
         orgFormRepository.save(orgForm);
+        referenceDataRegistry.invalidate();
+        contractorCache.clear();
         return OrgFormDTO.fromEntity(orgForm);
     }
 
@@ -53,6 +62,8 @@ public class OrgFormServiceImpl implements OrgFormService {
             if (existingOrgForm.isPresent()) {
                 existingOrgForm.get().setName(orgFormDTO.getName());
                 orgFormRepository.save(existingOrgForm.get());
+                referenceDataRegistry.invalidate();
+                contractorCache.clear();
                 return OrgFormDTO.fromEntity(existingOrgForm.get());
             } else {
                 throw new EntityNotFoundException("OrgForm not found with id: " + orgFormDTO.getId());
@@ -62,6 +73,8 @@ public class OrgFormServiceImpl implements OrgFormService {
                 .name(orgFormDTO.getName())
                 .build();
         OrgForm savedOrgForm = orgFormRepository.save(newOrgForm);
+        referenceDataRegistry.invalidate();
+        contractorCache.clear();
         return OrgFormDTO.fromEntity(savedOrgForm);
     }
 
@@ -0,0 +1,118 @@
+package io.github.contractormicroservice.service;
+
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Буфер подтвержденных брокером Outbox-событий.
+ * Вместо UPDATE на каждое событие идентификаторы накапливаются и отмечаются обработанными одним запросом
+ * при достижении batchSize или раз в flushIntervalMs. Запись в БД выполняется отдельным потоком,
+ * поэтому потоки подтверждений Rabbit не блокируются на JDBC
+ */
+@Component
+public class OutboxAckBuffer {
+
+    private final Logger log = LogManager.getLogger(OutboxAckBuffer.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<String> pending = new ArrayList<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-ack-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OutboxAckBuffer(OutboxEventRepository outboxEventRepository,
+                           @Value("${application.outbox.ack.batch-size:100}") int batchSize,
+                           @Value("${application.outbox.ack.flush-interval-ms:200}") long flushIntervalMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+
+    /**
+     * Добавляет подтвержденное событие в буфер
+     * @param id - идентификатор события
+     */
+    public void add(String id) {
+        boolean full;
+        lock.lock();
+        try {
+            pending.add(id);
+            full = pending.size() >= batchSize;
+        } finally {
+            lock.unlock();
+        }
+
+        if (full && !flusher.isShutdown()) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Синхронно отмечает обработанными все накопленные события
+     */
+    public void flush() {
+        List<String> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            int updated = outboxEventRepository.markAsProcessedBatch(batch);
+            log.debug("Outbox events marked as processed: {}", updated);
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                pending.addAll(batch);
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to mark outbox events as processed, will retry", e);
+        }
+    }
+
+}
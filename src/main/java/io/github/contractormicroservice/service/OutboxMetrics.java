@@ -0,0 +1,137 @@
+package io.github.contractormicroservice.service;
+
+import io.github.contractormicroservice.repository.outbox.OutboxEventJdbcRepository.OutboxBacklog;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Метрики Outbox: размер очереди и возраст самого старого необработанного события (gauge),
+ * задержка подтверждения брокером (publisher confirm) каждого отправленного события (timer),
+ * количество событий, не отправленных из-за схлопывания и перенесенных в outbox_dead_letter (counter),
+ * количество событий в секции DEFAULT по результату последнего обслуживания секций (gauge)
+ */
+@Component
+public class OutboxMetrics {
+
+    private final Logger log = LogManager.getLogger(OutboxMetrics.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    /**
+     * Минимальный интервал между запросами состояния очереди к БД (gauge читается при каждом опросе метрик)
+     */
+    @Value("${application.outbox.metrics.backlog-refresh-ms:10000}")
+    private long backlogRefreshMs = 10000;
+
+    private final Timer confirmAck;
+    private final Timer confirmNack;
+    private final Timer confirmError;
+    private final Counter confirmTimeouts;
+    private final Counter coalesced;
+    private final Counter deadLettered;
+    private final AtomicLong defaultPartitionEvents = new AtomicLong();
+
+    private volatile OutboxBacklog backlog;
+    private volatile long backlogLoadedAt;
+
+    public OutboxMetrics(OutboxEventRepository outboxEventRepository, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+
+        Gauge.builder("outbox.backlog.size", this, metrics -> metrics.backlogValue(b -> b.size()))
+                .description("Количество необработанных событий outbox")
+                .register(meterRegistry);
+        Gauge.builder("outbox.backlog.oldest.age", this, metrics -> metrics.backlogValue(OutboxMetrics::oldestAgeSeconds))
+                .description("Возраст самого старого необработанного события outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("outbox.partition.default.events", defaultPartitionEvents, AtomicLong::get)
+                .description("События outbox в секции DEFAULT (дни без заранее созданной секции)")
+                .register(meterRegistry);
+
+        this.confirmAck = confirmTimer(meterRegistry, "ack");
+        this.confirmNack = confirmTimer(meterRegistry, "nack");
+        this.confirmError = confirmTimer(meterRegistry, "error");
+        this.confirmTimeouts = Counter.builder("outbox.publish.confirm.timeouts")
+                .description("События, не подтвержденные брокером за confirm-timeout-ms")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("outbox.events.coalesced")
+                .description("События, замененные более новым снимком агрегата и не отправленные брокеру")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("outbox.events.dead.lettered")
+                .description("События, перенесенные в outbox_dead_letter после исчерпания попыток отправки")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Записать время от отправки события до ответа брокера
+     * @param sentAtNanos - System.nanoTime() перед отправкой
+     * @param ack - брокер подтвердил событие
+     * @param error - ошибка отправки или подтверждения
+     */
+    public void recordConfirm(long sentAtNanos, boolean ack, Throwable error) {
+        Timer timer = error != null ? confirmError : ack ? confirmAck : confirmNack;
+        timer.record(System.nanoTime() - sentAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordConfirmTimeouts(long count) {
+        confirmTimeouts.increment(count);
+    }
+
+    public void recordCoalesced(long count) {
+        coalesced.increment(count);
+    }
+
+    public void recordDeadLettered(long count) {
+        deadLettered.increment(count);
+    }
+
+    public void recordDefaultPartitionEvents(long count) {
+        defaultPartitionEvents.set(count);
+    }
+
+    private static Timer confirmTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("outbox.publish.confirm")
+                .description("Задержка подтверждения события брокером")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static double oldestAgeSeconds(OutboxBacklog backlog) {
+        if (backlog.oldestCreatedAt() == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(backlog.oldestCreatedAt(), LocalDateTime.now()).toMillis() / 1000.0);
+    }
+
+    /**
+     * Значение по состоянию очереди (NaN, если его не удалось прочитать)
+     */
+    private double backlogValue(ToDoubleFunction<OutboxBacklog> mapper) {
+        long now = System.currentTimeMillis();
+        if (backlog == null || now - backlogLoadedAt >= backlogRefreshMs) {
+            try {
+                backlog = outboxEventRepository.findBacklog();
+                backlogLoadedAt = now;
+            } catch (Exception e) {
+                log.warn("Failed to read outbox backlog: {}", e.getMessage());
+                return Double.NaN;
+            }
+        }
+        return mapper.applyAsDouble(backlog);
+    }
+
+}
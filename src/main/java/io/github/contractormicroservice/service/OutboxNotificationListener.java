@@ -0,0 +1,109 @@
+package io.github.contractormicroservice.service;
+
+import io.github.contractormicroservice.repository.outbox.OutboxEventJdbcRepositoryImpl;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Слушатель LISTEN/NOTIFY для Outbox.
+ * Держит отдельное (не из пула) соединение с Postgres, подписанное на канал outbox, и запускает
+ * цикл отправки сразу после commit транзакции с новым событием. Уведомления, пришедшие во время
+ * отправки, копятся в соединении и обрабатываются одним следующим циклом.
+ * При потере соединения переподключается, пропущенные события подберет резервный опрос
+ */
+@Component
+@ConditionalOnProperty(name = "application.outbox.notify.enabled", havingValue = "true")
+public class OutboxNotificationListener {
+
+    private final Logger log = LogManager.getLogger(OutboxNotificationListener.class);
+
+    private final OutboxService outboxService;
+    private final DataSourceProperties dataSourceProperties;
+    private final int waitTimeoutMs;
+    private final long reconnectDelayMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public OutboxNotificationListener(OutboxService outboxService, DataSourceProperties dataSourceProperties,
+                                      @Value("${application.outbox.notify.wait-timeout-ms:1000}") int waitTimeoutMs,
+                                      @Value("${application.outbox.notify.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        this.outboxService = outboxService;
+        this.dataSourceProperties = dataSourceProperties;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "outbox-notify-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + OutboxEventJdbcRepositoryImpl.NOTIFY_CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Outbox notify listener subscribed to channel {}", OutboxEventJdbcRepositoryImpl.NOTIFY_CHANNEL);
+
+                // События, сохраненные до подписки, уведомления уже не получат
+                publishQuietly();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(waitTimeoutMs);
+                    if (notifications != null && notifications.length > 0) {
+                        publishQuietly();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Outbox notify listener connection failed, reconnecting in {} ms", reconnectDelayMs, e);
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void publishQuietly() {
+        try {
+            outboxService.publishOutboxEvents();
+        } catch (Exception e) {
+            log.error("Failed to publish outbox events on notification", e);
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package io.github.contractormicroservice.service;
+
+import io.github.contractormicroservice.repository.outbox.OutboxEventJdbcRepository.OutboxPartition;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Обслуживание секций outbox_events (секционирована по created_at по дням):
+ * заранее создает секции на premakeDays дней вперед и удаляет (DETACH + DROP) секции старше retentionDays,
+ * в которых не осталось необработанных событий. Удаление секции целиком заменяет построчный DELETE
+ * и не оставляет в таблице и индексах "мертвых" строк.
+ * Секция DEFAULT не удаляется: из нее построчно удаляются обработанные события старше retentionDays,
+ * а оставшиеся в ней события попадают в лог и метрику outbox.partition.default.events
+ */
+@Component
+public class OutboxPartitionMaintenance {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final Logger log = LogManager.getLogger(OutboxPartitionMaintenance.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxMetrics outboxMetrics;
+
+    /**
+     * На сколько дней вперед создаются секции
+     */
+    @Value("${application.outbox.partition.premake-days:7}")
+    private int premakeDays = 7;
+
+    /**
+     * Сколько дней хранятся секции с обработанными событиями
+     */
+    @Value("${application.outbox.partition.retention-days:7}")
+    private int retentionDays = 7;
+
+    /**
+     * Удалять отсоединенные секции; при false секция остается отдельной таблицей (например, для архивации)
+     */
+    @Value("${application.outbox.partition.drop-detached:true}")
+    private boolean dropDetached = true;
+
+    @Value("${application.outbox.partition.lock-timeout-ms:5000}")
+    private long lockTimeoutMs = 5000;
+
+    public OutboxPartitionMaintenance(OutboxEventRepository outboxEventRepository, OutboxMetrics outboxMetrics) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxMetrics = outboxMetrics;
+    }
+
+    /**
+     * Выполняется при запуске и далее каждые maintenance-interval-ms. Несколько экземпляров сервиса
+     * не мешают друг другу: обслуживание выполняет тот, кто получил advisory-блокировку
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.partition.maintenance-interval-ms:3600000}")
+    @Transactional("transactionManager")
+    public void maintainPartitions() {
+        if (!outboxEventRepository.tryLockPartitionMaintenance(lockTimeoutMs)) {
+            log.debug("Outbox partition maintenance is running on another instance");
+            return;
+        }
+
+        List<OutboxPartition> partitions = outboxEventRepository.findPartitions();
+        LocalDate today = LocalDate.now();
+        createPartitions(partitions, today);
+        removeExpiredPartitions(partitions, today);
+        purgeDefaultPartition(today);
+    }
+
+    /**
+     * Секции создаются подряд от верхней границы последней существующей секции. Дни в прошлом и текущий день
+     * не создаются: их события уже могли попасть в секцию DEFAULT, и создание секции на этот диапазон завершится ошибкой
+     */
+    private void createPartitions(List<OutboxPartition> partitions, LocalDate today) {
+        LocalDate from = partitions.stream()
+                .map(partition -> partition.upperBound().toLocalDate())
+                .max(LocalDate::compareTo)
+                .filter(bound -> bound.isAfter(today))
+                .orElse(today.plusDays(1));
+
+        LocalDate until = today.plusDays(premakeDays);
+        for (LocalDate day = from; !day.isAfter(until); day = day.plusDays(1)) {
+            String name = "outbox_events_p" + day.format(PARTITION_SUFFIX);
+            outboxEventRepository.createPartition(name, day, day.plusDays(1));
+            log.info("Created outbox partition {}", name);
+        }
+    }
+
+    /**
+     * События попадают в DEFAULT, если сервис не создал секцию их дня заранее (был остановлен дольше premakeDays)
+     */
+    private void purgeDefaultPartition(LocalDate today) {
+        int purged = outboxEventRepository.purgeDefaultPartition(today.minusDays(retentionDays).atStartOfDay());
+        if (purged > 0) {
+            log.info("Deleted {} processed events from outbox DEFAULT partition", purged);
+        }
+
+        long remaining = outboxEventRepository.countDefaultPartitionEvents();
+        outboxMetrics.recordDefaultPartitionEvents(remaining);
+        if (remaining > 0) {
+            log.warn("Outbox DEFAULT partition holds {} events created on days without a partition", remaining);
+        }
+    }
+
+    private void removeExpiredPartitions(List<OutboxPartition> partitions, LocalDate today) {
+        LocalDate expiredBefore = today.minusDays(retentionDays);
+        for (OutboxPartition partition : partitions) {
+            if (partition.upperBound().toLocalDate().isAfter(expiredBefore)) {
+                continue;
+            }
+
+            if (outboxEventRepository.hasUnprocessedEvents(partition.name())) {
+                log.warn("Outbox partition {} is older than {} days but still has unprocessed events", partition.name(), retentionDays);
+                continue;
+            }
+
+            outboxEventRepository.removePartition(partition.name(), dropDetached);
+            log.info("{} outbox partition {}", dropDetached ? "Dropped" : "Detached", partition.name());
+        }
+    }
+
+}
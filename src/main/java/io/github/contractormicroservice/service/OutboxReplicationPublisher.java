@@ -0,0 +1,247 @@
+package io.github.contractormicroservice.service;
+
+import io.github.contractormicroservice.service.PgOutputDecoder.Commit;
+import io.github.contractormicroservice.service.PgOutputDecoder.Insert;
+import io.github.contractormicroservice.service.PgOutputDecoder.Message;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.replication.PGReplicationStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отправка Outbox-событий сразу после commit по WAL, без ожидания опроса таблицы.
+ * Держит отдельное соединение логической репликации (pgoutput) со слотом slotName, подписанным на публикацию
+ * publicationName (только INSERT в outbox_events). События транзакции после ее COMMIT захватываются и отправляются
+ * через OutboxService.publishEvents; LSN транзакции подтверждается слоту, когда каждое событие либо подтверждено
+ * брокером, либо оставлено в outbox_events для опроса (повторная попытка с задержкой, outbox_dead_letter).
+ * Поток читается заново с последнего подтвержденного LSN только при ошибке БД или обрыве соединения.
+ * Публикация и слот создаются при первом запуске; события, сохраненные до создания слота, отправляет опрос
+ */
+@Component
+@ConditionalOnProperty(name = "application.outbox.replication.enabled", havingValue = "true")
+public class OutboxReplicationPublisher {
+
+    private static final String OUTBOX_TABLE = "outbox_events";
+    private static final long IDLE_SLEEP_MS = 10;
+
+    private final Logger log = LogManager.getLogger(OutboxReplicationPublisher.class);
+
+    private final OutboxService outboxService;
+    private final DataSourceProperties dataSourceProperties;
+    private final String slotName;
+    private final String publicationName;
+    private final long statusIntervalMs;
+    private final long reconnectDelayMs;
+
+    private volatile boolean running;
+    private Thread replicationThread;
+
+    public OutboxReplicationPublisher(OutboxService outboxService, DataSourceProperties dataSourceProperties,
+                                      @Value("${application.outbox.replication.slot-name:outbox_slot}") String slotName,
+                                      @Value("${application.outbox.replication.publication-name:outbox_publication}") String publicationName,
+                                      @Value("${application.outbox.replication.status-interval-ms:10000}") long statusIntervalMs,
+                                      @Value("${application.outbox.replication.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        this.outboxService = outboxService;
+        this.dataSourceProperties = dataSourceProperties;
+        this.slotName = slotName;
+        this.publicationName = publicationName;
+        this.statusIntervalMs = statusIntervalMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        replicationThread = new Thread(this::replicate, "outbox-replication-publisher");
+        replicationThread.setDaemon(true);
+        replicationThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (replicationThread != null) {
+            replicationThread.interrupt();
+        }
+    }
+
+    private void replicate() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(), replicationProperties())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                ensurePublication(connection);
+                boolean slotCreated = ensureSlot(connection, pgConnection);
+
+                try (PGReplicationStream stream = pgConnection.getReplicationAPI()
+                        .replicationStream()
+                        .logical()
+                        .withSlotName(slotName)
+                        .withSlotOption("proto_version", 1)
+                        .withSlotOption("publication_names", publicationName)
+                        .withStatusInterval((int) statusIntervalMs, TimeUnit.MILLISECONDS)
+                        .start()) {
+
+                    log.info("Outbox replication publisher started: slot={}, publication={}", slotName, publicationName);
+                    if (slotCreated) {
+                        // События, сохраненные до создания слота, в поток не попадут
+                        publishQuietly();
+                    }
+
+                    if (!stream(stream)) {
+                        log.error("Outbox events from WAL are not handled, rereading slot {} in {} ms", slotName, reconnectDelayMs);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Outbox replication connection failed, reconnecting in {} ms", reconnectDelayMs, e);
+            }
+
+            if (!running || !sleep(reconnectDelayMs)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Читает поток до остановки или до ошибки отправки
+     * @return false, если события транзакции не переданы в OutboxService (ошибка БД)
+     */
+    private boolean stream(PGReplicationStream stream) throws SQLException {
+        PgOutputDecoder decoder = new PgOutputDecoder();
+        List<String> transaction = new ArrayList<>();
+
+        while (running) {
+            ByteBuffer buffer = stream.readPending();
+            if (buffer == null) {
+                if (!sleep(IDLE_SLEEP_MS)) {
+                    return true;
+                }
+                continue;
+            }
+
+            Message message = decoder.decode(buffer);
+            if (message instanceof Insert insert && OUTBOX_TABLE.equals(insert.relation().name())) {
+                transaction.add(insert.values().get("id"));
+            } else if (message instanceof Commit commit) {
+                if (!transaction.isEmpty()) {
+                    if (!publish(transaction)) {
+                        return false;
+                    }
+                    transaction.clear();
+                }
+
+                LogSequenceNumber lsn = LogSequenceNumber.valueOf(commit.endLsn());
+                stream.setAppliedLSN(lsn);
+                stream.setFlushedLSN(lsn);
+                stream.forceUpdateStatus();
+            }
+        }
+        return true;
+    }
+
+    private boolean publish(List<String> ids) {
+        try {
+            outboxService.publishEvents(ids);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to publish {} outbox events from WAL", ids.size(), e);
+            return false;
+        }
+    }
+
+    private void ensurePublication(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM pg_publication WHERE pubname = ?")) {
+            statement.setString(1, publicationName);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+        }
+
+        // Секции публикуются как корневая таблица outbox_events
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE PUBLICATION " + quote(publicationName) + " FOR TABLE " + OUTBOX_TABLE
+                    + " WITH (publish = 'insert', publish_via_partition_root = true)");
+        }
+        log.info("Publication {} created", publicationName);
+    }
+
+    /**
+     * @return true, если слот создан сейчас
+     */
+    private boolean ensureSlot(Connection connection, PGConnection pgConnection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM pg_replication_slots WHERE slot_name = ?")) {
+            statement.setString(1, slotName);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    return false;
+                }
+            }
+        }
+
+        pgConnection.getReplicationAPI()
+                .createReplicationSlot()
+                .logical()
+                .withSlotName(slotName)
+                .withOutputPlugin("pgoutput")
+                .make();
+        log.info("Replication slot {} created", slotName);
+        return true;
+    }
+
+    private Properties replicationProperties() {
+        Properties properties = new Properties();
+        PGProperty.USER.set(properties, dataSourceProperties.determineUsername());
+        PGProperty.PASSWORD.set(properties, dataSourceProperties.determinePassword());
+        PGProperty.REPLICATION.set(properties, "database");
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(properties, "10");
+        PGProperty.PREFER_QUERY_MODE.set(properties, "simple");
+        return properties;
+    }
+
+    private void publishQuietly() {
+        try {
+            outboxService.publishOutboxEvents();
+        } catch (Exception e) {
+            log.error("Failed to publish outbox events saved before replication slot creation", e);
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -1,5 +1,9 @@
 package io.github.contractormicroservice.service;
 
+import io.github.contractormicroservice.model.dto.OutboxEventRequest;
+
+import java.util.List;
+
 public interface OutboxService {
 
     /**
@@ -9,8 +13,19 @@ public interface OutboxService {
                                 Object payload, String exchange, String routingKey);
 
     /**
-     * Метод для отправки сообщений в Rabbit
+     * Метод для пакетного сохранения Outbox сообщений в БД (одним JDBC batch, в транзакции вызывающего кода)
+     */
+    void saveOutboxEvents(List<OutboxEventRequest> events);
+
+    /**
+     * Метод для отправки сообщений в брокеры (Rabbit, Kafka)
      */
     void publishOutboxEvents();
 
+    /**
+     * Метод для отправки сообщений с переданными id в брокеры (режим логической репликации).
+     * Неотправленные сообщения остаются в БД для повторной отправки опросом
+     */
+    void publishEvents(List<String> ids);
+
 }
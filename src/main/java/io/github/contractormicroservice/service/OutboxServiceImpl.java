@@ -2,24 +2,42 @@ package io.github.contractormicroservice.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.model.dto.OutboxEventRequest;
 import io.github.contractormicroservice.model.entity.OutboxEvent;
+import io.github.contractormicroservice.repository.outbox.OutboxEventJdbcRepository.OutboxFailure;
 import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.amqp.core.MessagePostProcessor;
-import org.springframework.amqp.rabbit.connection.CorrelationData;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * Сервис работы с Outbox
@@ -28,18 +46,125 @@ import java.util.concurrent.TimeoutException;
 @EnableScheduling
 public class OutboxServiceImpl implements OutboxService {
 
-    private static final int rabbitReceiveTimeout = 5;
-    private static final int scheduledDelay = 5000;
+    private static final int DEFAULT_WINDOW_SIZE = 256;
+    private static final long DEFAULT_CONFIRM_TIMEOUT_MS = 5000;
+    private static final int DEFAULT_CLAIM_BATCH_SIZE = 100;
+    private static final int DEFAULT_LEASE_SECONDS = 60;
+    private static final int DEFAULT_MAX_ATTEMPTS = 10;
     private final Logger log = LogManager.getLogger(OutboxServiceImpl.class);
 
     private final OutboxEventRepository outboxEventRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final List<OutboxTransport> transports;
     private final ObjectMapper objectMapper;
+    private final OutboxAckBuffer ackBuffer;
+    private final OutboxMetrics outboxMetrics;
+
+    /**
+     * Максимальное количество отправленных, но еще не подтвержденных брокером сообщений
+     */
+    @Value("${application.outbox.publisher.window-size:" + DEFAULT_WINDOW_SIZE + "}")
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+
+    @Value("${application.outbox.publisher.confirm-timeout-ms:" + DEFAULT_CONFIRM_TIMEOUT_MS + "}")
+    private long confirmTimeoutMs = DEFAULT_CONFIRM_TIMEOUT_MS;
+
+    /**
+     * Количество дорожек отправки: события распределяются по дорожкам по хэшу aggregateId,
+     * каждая дорожка отправляет свои события в отдельном потоке через свой канал
+     */
+    @Value("${application.outbox.publisher.lanes:1}")
+    private int lanes = 1;
+
+    /**
+     * Выполнять дорожки в виртуальных потоках (общий режим spring.threads.virtual.enabled)
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private AsyncTaskExecutor laneExecutor;
 
-    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository, RabbitTemplate rabbitTemplate, ObjectMapper objectMapper) {
+    /**
+     * Идентификатор экземпляра сервиса, которым помечаются захваченные им события
+     */
+    @Value("${application.outbox.instance-id:#{T(java.util.UUID).randomUUID().toString()}}")
+    private String instanceId = UUID.randomUUID().toString();
+
+    @Value("${application.outbox.claim.batch-size:" + DEFAULT_CLAIM_BATCH_SIZE + "}")
+    private int claimBatchSize = DEFAULT_CLAIM_BATCH_SIZE;
+
+    @Value("${application.outbox.claim.lease-seconds:" + DEFAULT_LEASE_SECONDS + "}")
+    private int leaseSeconds = DEFAULT_LEASE_SECONDS;
+
+    /**
+     * Режим LISTEN/NOTIFY: при сохранении события отправляется NOTIFY, который будит OutboxNotificationListener
+     */
+    @Value("${application.outbox.notify.enabled:false}")
+    private boolean notifyEnabled;
+
+    /**
+     * Количество попыток отправки события, после которого оно переносится в outbox_dead_letter
+     */
+    @Value("${application.outbox.retry.max-attempts:" + DEFAULT_MAX_ATTEMPTS + "}")
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * Задержка перед первой повторной попыткой; каждая следующая задержка вдвое больше, но не более retryMaxDelayMs
+     */
+    @Value("${application.outbox.retry.initial-delay-ms:1000}")
+    private long retryInitialDelayMs = 1000;
+
+    @Value("${application.outbox.retry.max-delay-ms:600000}")
+    private long retryMaxDelayMs = 600000;
+
+    /**
+     * Режим схлопывания: из подряд идущих событий агрегата с типом из coalesceEventTypes и тем же назначением
+     * отправляется только последнее (полный снимок), остальные отмечаются обработанными вместе с ним
+     */
+    @Value("${application.outbox.coalesce.enabled:false}")
+    private boolean coalesceEnabled;
+
+    @Value("${application.outbox.coalesce.event-types:UPDATED}")
+    private Set<String> coalesceEventTypes = Set.of("UPDATED");
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository, List<OutboxTransport> transports, ObjectMapper objectMapper,
+                             OutboxAckBuffer ackBuffer, OutboxMetrics outboxMetrics) {
         this.outboxEventRepository = outboxEventRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.transports = transports;
         this.objectMapper = objectMapper;
+        this.ackBuffer = ackBuffer;
+        this.outboxMetrics = outboxMetrics;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (lanes > 1) {
+            laneExecutor = virtualThreads ? virtualLaneExecutor() : platformLaneExecutor();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (laneExecutor instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        } else if (laneExecutor instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+    }
+
+    private AsyncTaskExecutor platformLaneExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(lanes);
+        executor.setMaxPoolSize(lanes);
+        executor.setThreadNamePrefix("outbox-lane-");
+        executor.initialize();
+        return executor;
+    }
+
+    private AsyncTaskExecutor virtualLaneExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("outbox-lane-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(5000);
+        return executor;
     }
 
     @Transactional("transactionManager")
@@ -63,6 +188,10 @@ public class OutboxServiceImpl implements OutboxService {
 
             outboxEventRepository.save(event);
 
+            if (notifyEnabled) {
+                outboxEventRepository.notifyNewEvents();
+            }
+
             log.debug("Outbox event saved: aggregateId={}, eventType={}", aggregateId, eventType);
 
         } catch (JsonProcessingException e) {
@@ -71,53 +200,445 @@ public class OutboxServiceImpl implements OutboxService {
         }
     }
 
+    @Transactional("transactionManager")
+    @Override
+    public void saveOutboxEvents(List<OutboxEventRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        // Время создания строго возрастает в порядке пачки (точность timestamp в БД - микросекунды),
+        // чтобы события одного агрегата внутри пачки отправлялись в исходном порядке
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(requests.size());
+        try {
+            for (OutboxEventRequest request : requests) {
+                createdAt = createdAt.plusNanos(1_000);
+                events.add(OutboxEvent.builder()
+                        .id(UUID.randomUUID())
+                        .aggregateId(request.aggregateId())
+                        .aggregateType(request.aggregateType())
+                        .eventType(request.eventType())
+                        .payload(objectMapper.writeValueAsString(request.payload()))
+                        .exchange(request.exchange())
+                        .routingKey(request.routingKey())
+                        .createdAt(createdAt)
+                        .build());
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize payload for outbox event", e);
+            throw new RuntimeException("Failed to serialize payload", e);
+        }
+
+        outboxEventRepository.insertBatch(events);
+
+        if (notifyEnabled) {
+            outboxEventRepository.notifyNewEvents();
+        }
+
+        log.debug("Outbox events saved: count={}", events.size());
+    }
+
     /**
-     * Периодически смотрит невыполненные (неотправленные) сообщения и отправляет их в Rabbit
-     * Отправка в CONTRACTORS_CONTRACTOR_EXCHANGE с проверкой доставки
+     * Периодически смотрит невыполненные (неотправленные) сообщения и отправляет их через OutboxTransport
+     * (Rabbit или Kafka, по назначению события).
+     * В режиме LISTEN/NOTIFY вызывается сразу после commit нового события, а опрос остается резервным механизмом.
+     * События распределяются по lanes дорожкам по хэшу aggregateId, дорожки отправляют параллельно.
+     * Внутри дорожки сообщения отправляются конвейером: в полете держится до windowSize неподтвержденных сообщений,
+     * подтверждения (publisher confirms, подтверждения Kafka) обрабатываются асинхронно по мере поступления.
+     * Все сообщения дорожки идут через один сеанс (канал Rabbit, ключ-агрегат Kafka), а события агрегата - через одну дорожку,
+     * поэтому порядок событий одного агрегата сохраняется.
+     * События предварительно захватываются (claim) этим экземпляром, поэтому несколько экземпляров
+     * сервиса делят очередь outbox между собой
      */
-    @Scheduled(fixedDelay = scheduledDelay)
-    @Transactional("transactionManager")
+    @Scheduled(fixedDelayString = "${application.outbox.poll-delay-ms:5000}")
     @Override
     public void publishOutboxEvents() {
-        List<OutboxEvent> unprocessedEvents = outboxEventRepository.findUnprocessedEvents();
+        List<OutboxEvent> unprocessedEvents = outboxEventRepository.claimEvents(instanceId, leaseSeconds, claimBatchSize);
+
+        if (unprocessedEvents.isEmpty()) {
+            return;
+        }
+
+        PublishCycle cycle = publish(unprocessedEvents);
+        releaseUnprocessed(unprocessedEvents, cycle);
+    }
+
+    /**
+     * Отправляет события, прочитанные из WAL (OutboxReplicationPublisher), тем же конвейером, что и publishOutboxEvents.
+     * События захватываются так же, как при опросе, поэтому опрос и чтение WAL не отправляют одно событие дважды.
+     * Незахваченные события (агрегат ждет более раннего события или повторной попытки) и неотправленные события
+     * остаются в очереди outbox: их отправит опрос с учетом задержки повторной попытки
+     */
+    @Override
+    public void publishEvents(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<OutboxEvent> events = outboxEventRepository.claimEventsByIds(ids, instanceId, leaseSeconds);
+        if (events.size() < ids.size()) {
+            log.debug("Outbox events from WAL left to polling: {} of {}", ids.size() - events.size(), ids.size());
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        PublishCycle cycle = publish(events);
+        releaseUnprocessed(events, cycle);
+    }
+
+    /**
+     * Один цикл отправки: схлопывание, отправка по дорожкам, ожидание подтверждений, отметка подтвержденных
+     * событий в БД и фиксация неудачных попыток
+     * @param events - события в порядке создания
+     */
+    private PublishCycle publish(List<OutboxEvent> events) {
+        Map<UUID, List<OutboxEvent>> superseded = new HashMap<>();
+        List<OutboxEvent> eventsToSend = coalesceEnabled ? coalesce(events, superseded) : events;
+        PublishCycle cycle = new PublishCycle(superseded);
+
+        List<PendingConfirm> pending = publishLanes(eventsToSend, cycle);
+
+        if (pending.isEmpty()) {
+            recordFailures(cycle);
+            return cycle;
+        }
+
+        try {
+            CompletableFuture.allOf(pending.stream().map(PendingConfirm::handled).toArray(CompletableFuture[]::new))
+                    .get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            long unconfirmed = pending.stream().filter(p -> !p.handled().isDone()).count();
+            outboxMetrics.recordConfirmTimeouts(unconfirmed);
+            log.error("Confirmation timeout: {} of {} events are not confirmed", unconfirmed, pending.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while waiting for confirmations", e);
+        } catch (ExecutionException e) {
+            log.error("Failed to get confirmations", e);
+        }
+
+        // Неподтвержденные в срок события будут отправлены повторно в следующем цикле,
+        // поэтому поздние подтверждения по этим агрегатам не должны отмечать более новые события
+        for (PendingConfirm p : pending) {
+            if (!p.handled().isDone()) {
+                cycle.fail(p.event(), "Confirmation timeout");
+            }
+        }
+
+        try {
+            ackBuffer.flush();
+        } catch (Exception e) {
+            log.error("Failed to mark confirmed events as processed, will retry", e);
+        }
+
+        recordFailures(cycle);
+        return cycle;
+    }
+
+    /**
+     * Фиксирует неудачные попытки: для каждого агрегата - первое неотправленное событие (и схлопнутые в него).
+     * Агрегат ждет повторной попытки с экспоненциальной задержкой, а после maxAttempts попыток событие
+     * переносится в outbox_dead_letter и больше не задерживает следующие события агрегата
+     */
+    private void recordFailures(PublishCycle cycle) {
+        if (cycle.failures.isEmpty()) {
+            return;
+        }
+
+        List<OutboxFailure> failures = new ArrayList<>();
+        int deadLettered = 0;
+        for (Failure failure : cycle.failures.values()) {
+            OutboxEvent event = failure.event();
+            List<OutboxEvent> events = new ArrayList<>(cycle.superseded.getOrDefault(event.getId(), List.of()));
+            events.add(event);
+            for (OutboxEvent failed : events) {
+                failures.add(new OutboxFailure(failed.getId().toString(), failure.error()));
+                int attempts = failed.getAttempts() == null ? 0 : failed.getAttempts();
+                if (attempts + 1 >= maxAttempts) {
+                    deadLettered++;
+                    log.error("Event moved to dead letter after {} attempts: id={}, error={}", attempts + 1, failed.getId(), failure.error());
+                }
+            }
+        }
+
+        try {
+            outboxEventRepository.recordFailures(failures, maxAttempts, retryInitialDelayMs, retryMaxDelayMs);
+            if (deadLettered > 0) {
+                outboxMetrics.recordDeadLettered(deadLettered);
+            }
+        } catch (Exception e) {
+            log.error("Failed to record {} failed outbox events, they will be retried without delay", failures.size(), e);
+        }
+    }
+
+    /**
+     * Схлопывает подряд идущие события агрегата, где более новое событие того же типа и назначения
+     * содержит полный снимок и делает предыдущее неактуальным
+     * @param events - события в порядке создания
+     * @param superseded - заполняется: событие к отправке -> схлопнутые в него более старые события
+     * @return события к отправке (в порядке создания)
+     */
+    private List<OutboxEvent> coalesce(List<OutboxEvent> events, Map<UUID, List<OutboxEvent>> superseded) {
+        Map<String, OutboxEvent> latest = new HashMap<>();
+        Set<UUID> skipped = new HashSet<>();
+        for (OutboxEvent event : events) {
+            OutboxEvent previous = latest.put(event.getAggregateId(), event);
+            if (previous == null || !supersedes(event, previous)) {
+                continue;
+            }
+
+            List<OutboxEvent> collapsed = superseded.remove(previous.getId());
+            if (collapsed == null) {
+                collapsed = new ArrayList<>();
+            }
+            collapsed.add(previous);
+            superseded.put(event.getId(), collapsed);
+            skipped.add(previous.getId());
+        }
+
+        if (skipped.isEmpty()) {
+            return events;
+        }
+        log.debug("Outbox events coalesced: {} of {}", skipped.size(), events.size());
+        return events.stream().filter(event -> !skipped.contains(event.getId())).toList();
+    }
+
+    private boolean supersedes(OutboxEvent event, OutboxEvent previous) {
+        return previous.getEventType() != null
+                && coalesceEventTypes.contains(previous.getEventType())
+                && previous.getEventType().equals(event.getEventType())
+                && Objects.equals(previous.getExchange(), event.getExchange())
+                && Objects.equals(previous.getRoutingKey(), event.getRoutingKey());
+    }
+
+    /**
+     * Отправляет события по дорожкам: каждая пара (транспорт, дорожка) отправляется отдельной задачей laneExecutor.
+     * При одной задаче (или lanes = 1) отправка выполняется в вызывающем потоке
+     * @return отправленные события с их подтверждениями
+     */
+    private List<PendingConfirm> publishLanes(List<OutboxEvent> events, PublishCycle cycle) {
+        List<Supplier<List<PendingConfirm>>> tasks = new ArrayList<>();
+        for (Map.Entry<OutboxTransport, List<OutboxEvent>> batch : byTransport(events, cycle).entrySet()) {
+            for (List<OutboxEvent> lane : byLane(batch.getValue())) {
+                tasks.add(() -> publishLane(batch.getKey(), lane, cycle));
+            }
+        }
+
+        List<PendingConfirm> pending = new ArrayList<>(events.size());
+        if (laneExecutor == null || tasks.size() == 1) {
+            tasks.forEach(task -> pending.addAll(task.get()));
+            return pending;
+        }
+
+        List<CompletableFuture<List<PendingConfirm>>> running = tasks.stream()
+                .map(task -> CompletableFuture.supplyAsync(task, laneExecutor))
+                .toList();
+        running.forEach(lane -> pending.addAll(lane.join()));
+        return pending;
+    }
+
+    private List<PendingConfirm> publishLane(OutboxTransport transport, List<OutboxEvent> events, PublishCycle cycle) {
+        try {
+            List<PendingConfirm> sent = transport.execute(sender -> sendPipelined(sender, events, cycle));
+            return sent != null ? sent : List.of();
+        } catch (Exception e) {
+            log.error("Failed to publish outbox events", e);
+            events.forEach(event -> cycle.fail(event, e.getMessage()));
+            return List.of();
+        }
+    }
+
+    /**
+     * Непустые дорожки событий (в исходном порядке внутри дорожки). Все события агрегата попадают в одну дорожку
+     */
+    private Collection<List<OutboxEvent>> byLane(List<OutboxEvent> events) {
+        if (lanes <= 1) {
+            return List.of(events);
+        }
+
+        Map<Integer, List<OutboxEvent>> byLane = new TreeMap<>();
+        for (OutboxEvent event : events) {
+            int lane = Math.floorMod(Objects.hashCode(event.getAggregateId()), lanes);
+            byLane.computeIfAbsent(lane, key -> new ArrayList<>()).add(event);
+        }
+        return byLane.values();
+    }
+
+    /**
+     * События, разделенные по транспортам (в исходном порядке внутри транспорта).
+     * Событие получает первый по порядку транспорт, поддерживающий его назначение.
+     * Событие без транспорта считается неотправленным и проходит через повторные попытки и outbox_dead_letter
+     */
+    private Map<OutboxTransport, List<OutboxEvent>> byTransport(List<OutboxEvent> events, PublishCycle cycle) {
+        Map<OutboxTransport, List<OutboxEvent>> batches = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            OutboxTransport transport = transports.stream()
+                    .filter(candidate -> candidate.supports(event.getExchange()))
+                    .findFirst()
+                    .orElse(null);
+            if (transport == null) {
+                log.error("No outbox transport for destination {}: id={}", event.getExchange(), event.getId());
+                cycle.fail(event, "No transport for destination " + event.getExchange());
+                continue;
+            }
+            batches.computeIfAbsent(transport, key -> new ArrayList<>()).add(event);
+        }
+        return batches;
+    }
+
+    /**
+     * Снимает захват с событий, которые не были отправлены и подтверждены в этом цикле,
+     * чтобы их можно было повторить, не дожидаясь истечения lease
+     */
+    private void releaseUnprocessed(List<OutboxEvent> events, PublishCycle cycle) {
+        List<String> ids = events.stream()
+                .filter(event -> !cycle.processedIds.contains(event.getId()))
+                .map(event -> event.getId().toString())
+                .toList();
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try {
+            outboxEventRepository.releaseClaims(ids, instanceId);
+        } catch (Exception e) {
+            log.error("Failed to release claims of {} events, they will be retried after lease expiration", ids.size(), e);
+        }
+    }
+
+    /**
+     * Отправляет события в рамках одного сеанса транспорта, не дожидаясь подтверждения каждого из них
+     * @param sender - отправка через транспорт, привязанная к одному сеансу
+     * @param events - события в порядке создания
+     * @param cycle - состояние цикла отправки (события агрегатов из failedAggregates не отправляются)
+     * @return отправленные события с обработкой их подтверждений (в порядке отправки)
+     */
+    private List<PendingConfirm> sendPipelined(OutboxTransport.Sender sender, List<OutboxEvent> events,
+                                               PublishCycle cycle) {
+        Semaphore window = new Semaphore(windowSize);
+        List<PendingConfirm> pending = new ArrayList<>(events.size());
+
+        for (OutboxEvent event : events) {
+            if (cycle.failedAggregates.contains(event.getAggregateId())) {
+                log.debug("Event skipped, previous event of aggregate is not confirmed: id={}", event.getId());
+                continue;
+            }
 
-        for (OutboxEvent event : unprocessedEvents) {
             try {
-                String correlationId = "outbox-" + event.getId();
-                CorrelationData correlationData = new CorrelationData(correlationId);
-
-                rabbitTemplate.convertAndSend(
-                        event.getExchange(),
-                        event.getRoutingKey(),
-                        event.getPayload(),
-                        message -> {
-                            message.getMessageProperties().setMessageId(event.getId().toString());
-                            return message;
-                        },
-                        correlationData
-                );
-
-
-                CorrelationData.Confirm confirm = correlationData.getFuture().get(rabbitReceiveTimeout, TimeUnit.SECONDS);
-
-                if (confirm.isAck()) {
-                    outboxEventRepository.markAsProcessed(event.getId().toString());
-                    log.debug("Event published and confirmed: id={}", event.getId());
-                } else {
-                    log.error("Event rejected by broker: id={}, reason={}",
-                            event.getId(), confirm.getReason());
+                if (!window.tryAcquire(confirmTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    log.error("Publisher window is not released in {} ms, stop publishing", confirmTimeoutMs);
+                    break;
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
 
-            } catch (InterruptedException | ExecutionException e) {
-                log.error("Failed to get confirmation for event: id={}", event.getId(), e);
-            } catch (TimeoutException e) {
-                log.error("Confirmation timeout for event: id={}", event.getId(), e);
+            long sentAt = System.nanoTime();
+            CompletableFuture<OutboxTransport.Confirm> confirm;
+            try {
+                confirm = sender.send(event);
             } catch (Exception e) {
                 log.error("Unexpected error publishing event: id={}", event.getId(), e);
+                cycle.fail(event, e.getMessage());
+                window.release();
+                outboxMetrics.recordConfirm(sentAt, false, e);
+                continue;
             }
+
+            // Ожидается завершение обработки подтверждения, а не само подтверждение: зависимые стадии
+            // CompletableFuture выполняются в обратном порядке, и allOf по confirm мог бы завершиться раньше handleConfirm
+            CompletableFuture<Void> handled = confirm.handle((result, ex) -> {
+                window.release();
+                outboxMetrics.recordConfirm(sentAt, result != null && result.ack(), ex);
+                handleConfirm(event, result, ex, cycle);
+                return null;
+            });
+            pending.add(new PendingConfirm(event, handled));
         }
 
+        return pending;
     }
 
+    /**
+     * Обработка подтверждения брокера: событие отмечается обработанным, только если все предыдущие
+     * события того же агрегата в этом цикле были подтверждены. Вместе с ним отмечаются схлопнутые в него события.
+     * Отметка в БД выполняется пачками через OutboxAckBuffer
+     */
+    private void handleConfirm(OutboxEvent event, OutboxTransport.Confirm confirm, Throwable ex, PublishCycle cycle) {
+        if (ex != null || confirm == null || !confirm.ack()) {
+            if (confirm != null) {
+                log.error("Event rejected by broker: id={}, reason={}", event.getId(), confirm.reason());
+                cycle.fail(event, "Rejected by broker: " + confirm.reason());
+            } else {
+                log.error("Event is not delivered to broker: id={}, error={}", event.getId(), ex != null ? ex.getMessage() : null);
+                cycle.fail(event, ex != null ? ex.getMessage() : "No confirmation");
+            }
+            return;
+        }
+
+        if (cycle.failedAggregates.contains(event.getAggregateId())) {
+            log.debug("Event confirmed after failure of previous event, will be resent: id={}", event.getId());
+            return;
+        }
+
+        ackBuffer.add(event.getId().toString());
+        cycle.processedIds.add(event.getId());
+        log.debug("Event published and confirmed: id={}", event.getId());
+
+        List<OutboxEvent> collapsed = cycle.superseded.getOrDefault(event.getId(), List.of());
+        for (OutboxEvent supersededEvent : collapsed) {
+            ackBuffer.add(supersededEvent.getId().toString());
+            cycle.processedIds.add(supersededEvent.getId());
+        }
+        if (!collapsed.isEmpty()) {
+            outboxMetrics.recordCoalesced(collapsed.size());
+        }
+    }
+
+    /**
+     * @param handled - завершается после обработки подтверждения брокера (handleConfirm)
+     */
+    private record PendingConfirm(OutboxEvent event, CompletableFuture<Void> handled) {
+    }
+
+    private record Failure(OutboxEvent event, String error) {
+    }
+
+    /**
+     * Состояние одного цикла отправки (изменяется из потока отправки и из потока подтверждений)
+     */
+    private static final class PublishCycle {
+
+        private final Set<String> failedAggregates = ConcurrentHashMap.newKeySet();
+        private final Set<UUID> processedIds = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Отправляемое событие -> схлопнутые в него события (заполняется до начала отправки)
+         */
+        private final Map<UUID, List<OutboxEvent>> superseded;
+
+        /**
+         * Агрегат -> самое раннее неотправленное в этом цикле событие агрегата и причина неудачи
+         */
+        private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+
+        private PublishCycle(Map<UUID, List<OutboxEvent>> superseded) {
+            this.superseded = superseded;
+        }
+
+        /**
+         * Событие не отправлено: следующие события агрегата в этом цикле не отправляются и не отмечаются
+         */
+        private void fail(OutboxEvent event, String error) {
+            failedAggregates.add(event.getAggregateId());
+            failures.merge(event.getAggregateId(), new Failure(event, error), (current, next) ->
+                    next.event().getCreatedAt().isBefore(current.event().getCreatedAt()) ? next : current);
+        }
+
+    }
 
 }
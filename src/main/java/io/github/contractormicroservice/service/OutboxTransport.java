@@ -0,0 +1,41 @@
+package io.github.contractormicroservice.service;
+
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Транспорт отправки Outbox-событий во внешний брокер. Транспорт выбирается по назначению события
+ * (exchange Rabbit или топик Kafka): используется первый по порядку (@Order) транспорт, поддерживающий назначение
+ */
+public interface OutboxTransport {
+
+    /**
+     * Обрабатывает ли транспорт события с таким назначением
+     */
+    boolean supports(String destination);
+
+    /**
+     * Выполнить отправку в рамках одного сеанса транспорта (для Rabbit - один канал, что сохраняет порядок отправки)
+     */
+    <T> T execute(Function<Sender, T> callback);
+
+    @FunctionalInterface
+    interface Sender {
+
+        /**
+         * Асинхронно отправить событие
+         * @return подтверждение брокера; завершается исключением при ошибке отправки
+         */
+        CompletableFuture<Confirm> send(OutboxEvent event);
+
+    }
+
+    /**
+     * Подтверждение брокера: ack = false - брокер отклонил событие (reason - причина)
+     */
+    record Confirm(boolean ack, String reason) {
+    }
+
+}
@@ -0,0 +1,121 @@
+package io.github.contractormicroservice.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Разбор сообщений логической репликации pgoutput (proto_version 1): BEGIN, COMMIT, RELATION и INSERT.
+ * Описания таблиц (RELATION) запоминаются и используются для имен колонок последующих INSERT.
+ * Остальные сообщения (UPDATE, DELETE, TRUNCATE, ORIGIN, TYPE) пропускаются
+ */
+public final class PgOutputDecoder {
+
+    private final Map<Integer, Relation> relations = new HashMap<>();
+
+    /**
+     * @param buffer - сообщение из потока репликации
+     * @return разобранное сообщение или null, если тип сообщения не используется
+     */
+    public Message decode(ByteBuffer buffer) {
+        char type = (char) buffer.get();
+        return switch (type) {
+            case 'B' -> new Begin(buffer.getLong());
+            case 'C' -> {
+                buffer.get();
+                long commitLsn = buffer.getLong();
+                yield new Commit(commitLsn, buffer.getLong());
+            }
+            case 'R' -> decodeRelation(buffer);
+            case 'I' -> decodeInsert(buffer);
+            default -> null;
+        };
+    }
+
+    private Relation decodeRelation(ByteBuffer buffer) {
+        int id = buffer.getInt();
+        String namespace = readString(buffer);
+        String name = readString(buffer);
+        buffer.get();
+        int columnCount = buffer.getShort();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            buffer.get();
+            columns.add(readString(buffer));
+            buffer.getInt();
+            buffer.getInt();
+        }
+
+        Relation relation = new Relation(id, namespace, name, columns);
+        relations.put(id, relation);
+        return relation;
+    }
+
+    private Insert decodeInsert(ByteBuffer buffer) {
+        int relationId = buffer.getInt();
+        Relation relation = relations.get(relationId);
+        if (relation == null) {
+            throw new IllegalStateException("INSERT for unknown relation " + relationId);
+        }
+        buffer.get();
+
+        int columnCount = buffer.getShort();
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            char kind = (char) buffer.get();
+            String value = null;
+            if (kind == 't') {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            values.put(relation.columns().get(i), value);
+        }
+        return new Insert(relation, values);
+    }
+
+    /**
+     * Строка, завершенная нулевым байтом
+     */
+    private static String readString(ByteBuffer buffer) {
+        int start = buffer.position();
+        int end = start;
+        while (buffer.get(end) != 0) {
+            end++;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(bytes);
+        buffer.get();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public sealed interface Message permits Begin, Commit, Relation, Insert {
+    }
+
+    /**
+     * @param finalLsn - LSN записи commit транзакции
+     */
+    public record Begin(long finalLsn) implements Message {
+    }
+
+    /**
+     * @param commitLsn - LSN записи commit
+     * @param endLsn - LSN конца транзакции: до него включительно поток можно подтверждать
+     */
+    public record Commit(long commitLsn, long endLsn) implements Message {
+    }
+
+    public record Relation(int id, String namespace, String name, List<String> columns) implements Message {
+    }
+
+    /**
+     * @param values - колонка -> значение в текстовом формате (null для NULL)
+     */
+    public record Insert(Relation relation, Map<String, String> values) implements Message {
+    }
+
+}
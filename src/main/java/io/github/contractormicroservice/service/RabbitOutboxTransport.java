@@ -0,0 +1,56 @@
+package io.github.contractormicroservice.service;
+
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Отправка Outbox-событий в RabbitMQ с publisher confirms. Транспорт по умолчанию:
+ * получает все события, назначение которых не обслуживается другими транспортами
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class RabbitOutboxTransport implements OutboxTransport {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public RabbitOutboxTransport(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Override
+    public boolean supports(String destination) {
+        return true;
+    }
+
+    @Override
+    public <T> T execute(Function<Sender, T> callback) {
+        return rabbitTemplate.invoke(operations -> callback.apply(event -> send(operations, event)));
+    }
+
+    private CompletableFuture<Confirm> send(RabbitOperations operations, OutboxEvent event) {
+        CorrelationData correlationData = new CorrelationData("outbox-" + event.getId());
+        CompletableFuture<Confirm> confirm = correlationData.getFuture()
+                .thenApply(result -> new Confirm(result.isAck(), result.getReason()));
+
+        operations.convertAndSend(
+                event.getExchange(),
+                event.getRoutingKey(),
+                event.getPayload(),
+                message -> {
+                    message.getMessageProperties().setMessageId(event.getId().toString());
+                    return message;
+                },
+                correlationData
+        );
+        return confirm;
+    }
+
+}
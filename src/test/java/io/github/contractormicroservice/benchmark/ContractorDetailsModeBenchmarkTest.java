@@ -0,0 +1,165 @@
+package io.github.contractormicroservice.benchmark;
+
+import io.github.contractormicroservice.model.entity.Contractor;
+import io.github.contractormicroservice.model.entity.ContractorFilter;
+import io.github.contractormicroservice.model.entity.Pagination;
+import io.github.contractormicroservice.repository.contractor.ContractorJdbcRepositoryImpl;
+import io.github.contractormicroservice.repository.contractor.ContractorJdbcRepositoryImpl.DetailsMode;
+import io.github.contractormicroservice.repository.contractor.ContractorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бенчмарк режимов application.contractor.query.details-mode на 1 000 000 контрагентов со ссылками на все справочники:
+ * JOIN (LEFT JOIN country, industry, org_form) против MEMORY (только contractor, наименования из ReferenceDataRegistry).
+ * Сравниваются планы и время поиска страницы, получения по id и выгрузки
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers
+class ContractorDetailsModeBenchmarkTest {
+
+    private static final int CONTRACTORS = 1_000_000;
+    private static final int SEARCH_RUNS = 50;
+    private static final int LOOKUPS = 5_000;
+
+    private static final String EXPLAIN_JOIN = """
+            EXPLAIN (ANALYZE, BUFFERS)
+            SELECT c.*, co.name, i.name, of.name
+            FROM contractor c
+            LEFT JOIN country co ON c.country = co.id
+            LEFT JOIN industry i ON c.industry = i.id
+            LEFT JOIN org_form of ON c.org_form = of.id
+            WHERE c.is_active = true AND c.industry = ?
+            ORDER BY c.id
+            LIMIT 100 OFFSET 10000
+            """;
+
+    private static final String EXPLAIN_MEMORY = """
+            EXPLAIN (ANALYZE, BUFFERS)
+            SELECT c.*
+            FROM contractor c
+            WHERE c.is_active = true AND c.industry = ?
+            ORDER BY c.id
+            LIMIT 100 OFFSET 10000
+            """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContractorRepository contractorRepository;
+
+    @Autowired
+    private ContractorJdbcRepositoryImpl contractorJdbcRepository;
+
+    @Test
+    void detailsMode_joinVersusMemory() {
+        jdbcTemplate.update("DELETE FROM contractor");
+        jdbcTemplate.update("""
+                INSERT INTO contractor (id, name, name_full, inn, ogrn, country, industry, org_form, is_active)
+                SELECT 'D' || lpad(g::text, 7, '0'),
+                       'Контрагент ' || g,
+                       'ООО Контрагент ' || g,
+                       (7700000000 + g)::text,
+                       (1027700000000 + g)::text,
+                       co.ids[1 + g % array_length(co.ids, 1)],
+                       i.ids[1 + g % array_length(i.ids, 1)],
+                       o.ids[1 + g % array_length(o.ids, 1)],
+                       true
+                FROM generate_series(1, ?) g,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM country) co,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM industry) i,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM org_form) o
+                """, CONTRACTORS);
+        jdbcTemplate.execute("ANALYZE contractor");
+
+        Long industry = jdbcTemplate.queryForObject("SELECT min(id) FROM industry", Long.class);
+        log.info("Search plan in JOIN mode:\n{}", explain(EXPLAIN_JOIN, industry));
+        log.info("Search plan in MEMORY mode:\n{}", explain(EXPLAIN_MEMORY, industry));
+
+        Result join = measure(DetailsMode.JOIN, industry);
+        Result memory = measure(DetailsMode.MEMORY, industry);
+
+        log.info("JOIN:   search {} ms, findByIdWithDetails {} us, export {} ms", join.searchMillis(), join.lookupMicros(), join.exportMillis());
+        log.info("MEMORY: search {} ms, findByIdWithDetails {} us, export {} ms", memory.searchMillis(), memory.lookupMicros(), memory.exportMillis());
+
+        assertThat(memory.page()).usingRecursiveComparison().isEqualTo(join.page());
+    }
+
+    private Result measure(DetailsMode mode, Long industry) {
+        ReflectionTestUtils.setField(contractorJdbcRepository, "detailsMode", mode);
+
+        ContractorFilter filter = new ContractorFilter();
+        filter.setIndustry(industry.intValue());
+
+        // Прогрев пула соединений, кэша планов и справочников в памяти
+        contractorRepository.searchContractors(filter, 0, 100);
+
+        long start = System.nanoTime();
+        Pagination page = null;
+        for (int i = 0; i < SEARCH_RUNS; i++) {
+            page = contractorRepository.searchContractors(filter, 100, 100);
+        }
+        long searchMillis = (System.nanoTime() - start) / 1_000_000 / SEARCH_RUNS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            String id = "D" + String.format("%07d", ThreadLocalRandom.current().nextInt(1, CONTRACTORS + 1));
+            assertThat(contractorRepository.findByIdWithDetails(id)).isPresent();
+        }
+        long lookupMicros = (System.nanoTime() - start) / 1_000 / LOOKUPS;
+
+        AtomicLong exported = new AtomicLong();
+        start = System.nanoTime();
+        contractorRepository.streamContractors(new ContractorFilter(), contractor -> exported.incrementAndGet());
+        long exportMillis = (System.nanoTime() - start) / 1_000_000;
+        assertThat(exported).hasValue(CONTRACTORS);
+
+        List<Contractor> contractors = page.getContractors();
+        assertThat(contractors).hasSize(100).allSatisfy(contractor -> {
+            assertThat(contractor.getCountryEntity()).isNotNull();
+            assertThat(contractor.getIndustryEntity()).isNotNull();
+            assertThat(contractor.getOrgFormEntity()).isNotNull();
+        });
+        return new Result(contractors, searchMillis, lookupMicros, exportMillis);
+    }
+
+    private String explain(String sql, Long industry) {
+        return String.join("\n", jdbcTemplate.queryForList(sql, String.class, industry));
+    }
+
+    private record Result(List<Contractor> page, long searchMillis, long lookupMicros, long exportMillis) {
+    }
+
+}
@@ -0,0 +1,187 @@
+package io.github.contractormicroservice.benchmark;
+
+import io.github.contractormicroservice.cache.ReferenceDataRegistry;
+import io.github.contractormicroservice.model.entity.ContractorFilter;
+import io.github.contractormicroservice.repository.contractor.ContractorJdbcRepositoryImpl;
+import io.github.contractormicroservice.repository.country.CountryRepository;
+import io.github.contractormicroservice.repository.industry.IndustryRepository;
+import io.github.contractormicroservice.repository.orgForm.OrgFormRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JMH-бенчмарк работы ContractorJdbcRepositoryImpl на каждый запрос без БД:
+ * - rowMapper - маппинг строки поиска (со всеми справочниками) из ResultSet в Contractor;
+ * - rowMapperMemory - то же в режиме details-mode=MEMORY: справочники из ReferenceDataRegistry;
+ * - searchFiltersEmpty / searchFiltersAll - построение SQL-фильтра поиска без условий и со всеми условиями.
+ * ResultSet - легковесная заглушка на Proxy (Mockito добавил бы к каждому вызову больше, чем стоит сам маппинг).
+ * Запуск: mvn test -Pjmh -Djmh.include=ContractorRepositoryBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContractorRepositoryBenchmark {
+
+    private RowMapper<?> rowMapper;
+    private RowMapper<?> memoryRowMapper;
+    private MethodHandle searchFilters;
+    private ResultSet resultSet;
+    private ContractorFilter fullFilter;
+
+    @Setup
+    public void setUp() throws Exception {
+        ContractorJdbcRepositoryImpl repository = new ContractorJdbcRepositoryImpl(null, new SimpleMeterRegistry(), referenceDataRegistry());
+        rowMapper = (RowMapper<?>) ReflectionTestUtils.getField(repository, "contractorRowMapper");
+        memoryRowMapper = (RowMapper<?>) ReflectionTestUtils.getField(repository, "contractorMemoryRowMapper");
+
+        Method method = ContractorJdbcRepositoryImpl.class.getDeclaredMethod("searchFilters", ContractorFilter.class, Map.class);
+        method.setAccessible(true);
+        searchFilters = MethodHandles.lookup().unreflect(method).bindTo(repository);
+
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", "contractor-000123");
+        row.put("parent_id", "contractor-000001");
+        row.put("name", "ООО Рога и Копыта");
+        row.put("name_full", "Общество с ограниченной ответственностью Рога и Копыта");
+        row.put("inn", "1234567890");
+        row.put("ogrn", "123456789012345");
+        row.put("country", "RUS");
+        row.put("industry", 3L);
+        row.put("org_form", 2L);
+        row.put("create_date", Timestamp.valueOf(LocalDateTime.of(2024, 1, 15, 10, 30)));
+        row.put("modify_date", Timestamp.valueOf(LocalDateTime.of(2024, 6, 1, 12, 0)));
+        row.put("create_user_id", "user-1");
+        row.put("modify_user_id", "user-2");
+        row.put("is_active", true);
+        row.put("country_name", "Российская Федерация");
+        row.put("industry_id", 3L);
+        row.put("industry_name", "Строительство");
+        row.put("org_form_id", 2L);
+        row.put("org_form_name", "ООО");
+        resultSet = resultSet(row);
+
+        fullFilter = new ContractorFilter();
+        fullFilter.setContractorId("contractor-000123");
+        fullFilter.setParentId("contractor-000001");
+        fullFilter.setContractorSearch("рога_100%");
+        fullFilter.setCountry("RUS");
+        fullFilter.setIndustry(3);
+        fullFilter.setOrgForm("2");
+    }
+
+    @Benchmark
+    public Object rowMapper() throws Exception {
+        return rowMapper.mapRow(resultSet, 1);
+    }
+
+    @Benchmark
+    public Object rowMapperMemory() throws Exception {
+        return memoryRowMapper.mapRow(resultSet, 1);
+    }
+
+    @Benchmark
+    public Object searchFiltersEmpty() throws Throwable {
+        return (String) searchFilters.invoke(new ContractorFilter(), new HashMap<String, Object>());
+    }
+
+    @Benchmark
+    public Object searchFiltersAll() throws Throwable {
+        return (String) searchFilters.invoke(fullFilter, new HashMap<String, Object>());
+    }
+
+    @Test
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContractorRepositoryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new ContractorRepositoryBenchmark().runBenchmark();
+    }
+
+    /**
+     * Справочники в памяти с записями, на которые ссылается строка, и еще сотней соседних
+     */
+    private static ReferenceDataRegistry referenceDataRegistry() {
+        Map<String, String> countries = new HashMap<>();
+        Map<Long, String> industries = new HashMap<>();
+        Map<Long, String> orgForms = new HashMap<>();
+        for (long i = 1; i <= 100; i++) {
+            countries.put("C" + i, "Страна " + i);
+            industries.put(i, "Отрасль " + i);
+            orgForms.put(i, "Форма " + i);
+        }
+        countries.put("RUS", "Российская Федерация");
+
+        CountryRepository countryRepository = mock(CountryRepository.class);
+        IndustryRepository industryRepository = mock(IndustryRepository.class);
+        OrgFormRepository orgFormRepository = mock(OrgFormRepository.class);
+        when(countryRepository.findAllNames()).thenReturn(countries);
+        when(industryRepository.findAllNames()).thenReturn(industries);
+        when(orgFormRepository.findAllNames()).thenReturn(orgForms);
+
+        ReferenceDataRegistry registry = new ReferenceDataRegistry(countryRepository, industryRepository, orgFormRepository);
+        registry.preload();
+        return registry;
+    }
+
+    /**
+     * ResultSet с одной строкой: поддерживает только методы, которые вызывают contractorRowMapper и contractorMemoryRowMapper
+     */
+    private static ResultSet resultSet(Map<String, Object> row) {
+        boolean[] lastWasNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return lastWasNull[0];
+                    }
+
+                    Object value = row.get((String) args[0]);
+                    lastWasNull[0] = value == null;
+                    return switch (method.getName()) {
+                        case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                        case "getBoolean" -> value != null && (Boolean) value;
+                        case "getString", "getTimestamp", "getObject" -> value;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+
+}
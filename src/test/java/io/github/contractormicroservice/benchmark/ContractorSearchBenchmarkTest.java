@@ -0,0 +1,134 @@
+package io.github.contractormicroservice.benchmark;
+
+import io.github.contractormicroservice.model.entity.ContractorFilter;
+import io.github.contractormicroservice.model.entity.Pagination;
+import io.github.contractormicroservice.repository.contractor.ContractorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бенчмарк поиска подрядчиков по подстроке (contractorSearch) на 1 000 000 записей:
+ * план и время запроса без триграммных индексов (Seq Scan) и с ними (Bitmap Index Scan по idx_contractor_*_trgm)
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers
+class ContractorSearchBenchmarkTest {
+
+    private static final int CONTRACTORS = 1_000_000;
+    private static final int RUNS = 5;
+
+    private static final List<String> TRIGRAM_INDEXES = List.of(
+            "CREATE INDEX idx_contractor_name_trgm ON contractor USING gin (name gin_trgm_ops)",
+            "CREATE INDEX idx_contractor_name_full_trgm ON contractor USING gin (name_full gin_trgm_ops)",
+            "CREATE INDEX idx_contractor_inn_trgm ON contractor USING gin (inn gin_trgm_ops)",
+            "CREATE INDEX idx_contractor_ogrn_trgm ON contractor USING gin (ogrn gin_trgm_ops)"
+    );
+
+    /**
+     * Условие поиска в том виде, в каком его строит ContractorJdbcRepositoryImpl.searchFilters
+     */
+    private static final String EXPLAIN_SQL = """
+            EXPLAIN (ANALYZE, BUFFERS)
+            SELECT c.id FROM contractor c
+            WHERE c.is_active = true
+              AND (c.name ILIKE ? OR c.name_full ILIKE ? OR c.inn ILIKE ? OR c.ogrn ILIKE ?)
+            ORDER BY c.id
+            LIMIT 10
+            """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContractorRepository contractorRepository;
+
+    @Test
+    void substringSearch_seqScanVersusTrigramIndexes() {
+        dropTrigramIndexes();
+        jdbcTemplate.update("DELETE FROM contractor");
+        jdbcTemplate.update("""
+                INSERT INTO contractor (id, name, name_full, inn, ogrn, is_active)
+                SELECT 'B' || g,
+                       'Контрагент ' || md5(g::text),
+                       'ООО Контрагент ' || md5(g::text) || ' полное наименование',
+                       (7700000000 + g)::text,
+                       (1027700000000 + g)::text,
+                       true
+                FROM generate_series(1, ?) g
+                """, CONTRACTORS);
+        jdbcTemplate.execute("ANALYZE contractor");
+
+        // Подстрока из середины md5 одной записи - избирательный поиск
+        String term = jdbcTemplate.queryForObject("SELECT substr(md5('777777'), 10, 8)", String.class);
+
+        String planWithout = explain(term);
+        long millisWithout = measure(term);
+
+        TRIGRAM_INDEXES.forEach(jdbcTemplate::execute);
+        jdbcTemplate.execute("ANALYZE contractor");
+
+        String planWith = explain(term);
+        long millisWith = measure(term);
+
+        log.info("Search '{}' without trigram indexes: {} ms per query\n{}", term, millisWithout, planWithout);
+        log.info("Search '{}' with trigram indexes: {} ms per query\n{}", term, millisWith, planWith);
+
+        assertThat(planWithout).contains("Seq Scan on contractor");
+        assertThat(planWith).contains("Bitmap Index Scan on idx_contractor_name_trgm");
+        assertThat(millisWith).isLessThan(millisWithout);
+    }
+
+    private String explain(String term) {
+        String pattern = "%" + term + "%";
+        List<String> lines = jdbcTemplate.queryForList(EXPLAIN_SQL, String.class, pattern, pattern, pattern, pattern);
+        return String.join("\n", lines);
+    }
+
+    private long measure(String term) {
+        ContractorFilter filter = new ContractorFilter();
+        filter.setContractorSearch(term);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            Pagination result = contractorRepository.searchContractors(filter, 0, 10);
+            assertThat(result.getContractors()).hasSize(1);
+        }
+        return (System.nanoTime() - start) / 1_000_000 / RUNS;
+    }
+
+    private void dropTrigramIndexes() {
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_contractor_name_trgm");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_contractor_name_full_trgm");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_contractor_inn_trgm");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_contractor_ogrn_trgm");
+    }
+
+}
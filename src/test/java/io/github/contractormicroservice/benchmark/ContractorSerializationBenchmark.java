@@ -0,0 +1,107 @@
+package io.github.contractormicroservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.dto.CountryDTO;
+import io.github.contractormicroservice.model.dto.IndustryDTO;
+import io.github.contractormicroservice.model.dto.OrgFormDTO;
+import io.github.contractormicroservice.model.entity.Contractor;
+import io.github.contractormicroservice.model.entity.Pagination;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарк сериализации ответов контрагентов (ObjectMapper с настройками Spring по умолчанию):
+ * - contractorDtoFrom - ContractorDTO.from и JSON события контрагента (payload outbox);
+ * - paginationToJson - JSON страницы поиска из 10 контрагентов со справочниками.
+ * Запуск: mvn test -Pjmh -Djmh.include=ContractorSerializationBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContractorSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    private ObjectMapper objectMapper;
+    private Contractor contractor;
+    private Pagination pagination;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<Contractor> contractors = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            contractors.add(contractor(i));
+        }
+        contractor = contractors.getFirst();
+        pagination = new Pagination(contractors, 0, PAGE_SIZE, 1_000_000);
+    }
+
+    @Benchmark
+    public String contractorDtoFrom() throws Exception {
+        return objectMapper.writeValueAsString(ContractorDTO.from(contractor));
+    }
+
+    @Benchmark
+    public byte[] paginationToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(pagination);
+    }
+
+    @Test
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContractorSerializationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new ContractorSerializationBenchmark().runBenchmark();
+    }
+
+    private static Contractor contractor(int i) {
+        return Contractor.builder()
+                .id("contractor-%06d".formatted(i))
+                .parentId("contractor-000001")
+                .name("ООО Рога и Копыта " + i)
+                .nameFull("Общество с ограниченной ответственностью Рога и Копыта " + i)
+                .inn("1234567890")
+                .ogrn("123456789012345")
+                .country("RUS")
+                .industry(3L)
+                .orgForm(2L)
+                .createDate(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .modifyDate(LocalDateTime.of(2024, 6, 1, 12, 0))
+                .countryEntity(CountryDTO.builder().id("RUS").name("Российская Федерация").build())
+                .industryEntity(IndustryDTO.builder().id(3L).name("Строительство").build())
+                .orgFormEntity(OrgFormDTO.builder().id(2L).name("ООО").build())
+                .build();
+    }
+
+}
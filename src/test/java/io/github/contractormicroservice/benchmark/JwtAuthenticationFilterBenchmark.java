@@ -0,0 +1,128 @@
+package io.github.contractormicroservice.benchmark;
+
+import io.github.contractormicroservice.config.JwtAuthenticationFilter;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарк JwtAuthenticationFilter для запросов с одним и тем же bearer-токеном:
+ * - perRequestParser - прежнее поведение: ключ и парсер создаются на каждый запрос;
+ * - sharedParser - общий парсер без кэша токенов (кэш размером 0);
+ * - cachedToken - общий парсер и кэш проверенных токенов.
+ * Запуск: mvn test -Pbenchmark -Dtest=JwtAuthenticationFilterBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationAndValidation1234567890";
+
+    private JwtAuthenticationFilter sharedParserFilter;
+    private JwtAuthenticationFilter cachedTokenFilter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = signInKey();
+        token = Jwts.builder()
+                .setSubject("benchmark-user")
+                .claim("roles", List.of("USER", "CONTRACTOR_SUPERUSER"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        sharedParserFilter = filter(0);
+        cachedTokenFilter = filter(10_000);
+    }
+
+    @Benchmark
+    public Object perRequestParser() {
+        // Воспроизводит прежний extractAllClaims: декодирование ключа и построение парсера на каждый вызов
+        return Jwts.parserBuilder()
+                .setSigningKey(signInKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .get("roles", List.class);
+    }
+
+    @Benchmark
+    public Object sharedParser() throws Exception {
+        return doFilter(sharedParserFilter);
+    }
+
+    @Benchmark
+    public Object cachedToken() throws Exception {
+        return doFilter(cachedTokenFilter);
+    }
+
+    @Test
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new JwtAuthenticationFilterBenchmark().runBenchmark();
+    }
+
+    private Object doFilter(JwtAuthenticationFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/ui/contractor/search");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static JwtAuthenticationFilter filter(long tokenCacheMaxSize) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "secretKey", SECRET);
+        ReflectionTestUtils.setField(filter, "tokenCacheMaxSize", tokenCacheMaxSize);
+        ReflectionTestUtils.setField(filter, "tokenCacheMaxTtlSeconds", 3600L);
+        filter.init();
+        return filter;
+    }
+
+    private static SecretKey signInKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+
+}
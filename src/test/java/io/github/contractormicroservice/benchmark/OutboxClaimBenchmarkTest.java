@@ -0,0 +1,145 @@
+package io.github.contractormicroservice.benchmark;
+
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бенчмарк захвата (claim) событий outbox несколькими экземплярами через FOR UPDATE SKIP LOCKED:
+ * пропускная способность растет с количеством экземпляров (публикация имитируется фиксированной задержкой)
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers
+class OutboxClaimBenchmarkTest {
+
+    private static final int AGGREGATES = 100;
+    private static final int EVENTS_PER_AGGREGATE = 10;
+    private static final int CLAIM_LIMIT = 5;
+    private static final long PUBLISH_COST_MS = 1;
+
+    @Container
+    public static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int seq = 0; seq < EVENTS_PER_AGGREGATE; seq++) {
+            for (int aggregate = 0; aggregate < AGGREGATES; aggregate++) {
+                OutboxEvent event = OutboxEvent.builder()
+                        .id(UUID.randomUUID())
+                        .aggregateId("CLAIM-" + aggregate)
+                        .aggregateType("Contractor")
+                        .eventType("UPDATED")
+                        .payload(String.valueOf(seq))
+                        .exchange("test_exchange")
+                        .routingKey("test.key")
+                        .createdAt(base.plusNanos((seq * AGGREGATES + aggregate) * 1000L))
+                        .build();
+                event.markAsNew();
+                events.add(event);
+            }
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    /**
+     * Тест: пропускная способность растет с количеством экземпляров
+     */
+    @Test
+    void claimEvents_ThroughputScalesWithWorkers() throws Exception {
+        double singleWorker = measureThroughput(1);
+        setUp();
+        double twoWorkers = measureThroughput(2);
+        setUp();
+        double fourWorkers = measureThroughput(4);
+
+        log.info("Outbox claim throughput: 1 worker = {} events/s, 2 workers = {} events/s, 4 workers = {} events/s",
+                Math.round(singleWorker), Math.round(twoWorkers), Math.round(fourWorkers));
+
+        assertThat(twoWorkers).isGreaterThan(singleWorker * 1.5);
+        assertThat(fourWorkers).isGreaterThan(singleWorker * 2.5);
+    }
+
+    private double measureThroughput(int workers) throws Exception {
+        long start = System.nanoTime();
+        runWorkers(workers);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return AGGREGATES * EVENTS_PER_AGGREGATE / seconds;
+    }
+
+    /**
+     * Запускает workers экземпляров-обработчиков, каждый из которых захватывает события под своим id,
+     * "публикует" их (с фиксированной задержкой, имитирующей брокер) и отмечает обработанными.
+     * Отсутствие повторной обработки и порядок событий агрегата проверяет OutboxClaimIntegrationTest
+     */
+    private void runWorkers(int workers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                String workerId = "worker-" + i;
+                futures.add(executor.submit(() -> {
+                    while (true) {
+                        List<OutboxEvent> claimed = outboxEventRepository.claimEvents(workerId, 30, CLAIM_LIMIT);
+                        if (claimed.isEmpty()) {
+                            if (outboxEventRepository.findUnprocessedEvents().isEmpty()) {
+                                return null;
+                            }
+                            Thread.sleep(5);
+                            continue;
+                        }
+                        for (OutboxEvent event : claimed) {
+                            Thread.sleep(PUBLISH_COST_MS);
+                            outboxEventRepository.markAsProcessed(event.getId().toString());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
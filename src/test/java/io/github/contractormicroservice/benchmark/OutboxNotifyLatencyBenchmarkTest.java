@@ -0,0 +1,139 @@
+package io.github.contractormicroservice.benchmark;
+
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бенчмарк задержки доставки в режиме LISTEN/NOTIFY: событие доставляется в RabbitMQ быстрее 100 мс после commit.
+ * Интервал резервного опроса - 60 секунд, поэтому уложиться в срок можно только по уведомлению.
+ * Сообщения читаются из очереди напрямую (RabbitTemplate.receive), без слушателя
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "application.outbox.notify.enabled=true",
+        "application.outbox.poll-delay-ms=60000"
+})
+@Testcontainers
+@Import(OutboxNotifyLatencyBenchmarkTest.QueueConfig.class)
+class OutboxNotifyLatencyBenchmarkTest {
+
+    private static final String QUEUE = "notify_benchmark_queue";
+    private static final String EXCHANGE = "notify_benchmark_exchange";
+    private static final String ROUTING_KEY = "notify.benchmark";
+    private static final long RECEIVE_TIMEOUT_MS = 10_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.13-management");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", rabbitMQ::getAdminUsername);
+        registry.add("spring.rabbitmq.password", rabbitMQ::getAdminPassword);
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private RabbitAdmin rabbitAdmin;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAll();
+        rabbitAdmin.purgeQueue(QUEUE, false);
+    }
+
+    @Test
+    void saveOutboxEvent_shouldBeDeliveredWithin100Ms() {
+        ContractorDTO contractor = new ContractorDTO();
+        contractor.setId("NOTIFY-1");
+        contractor.setName("Notify Company");
+
+        // Прогрев: первое событие проходит через установку соединений с брокером
+        outboxService.saveOutboxEvent(contractor.getId(), "Contractor", "CREATED", contractor, EXCHANGE, ROUTING_KEY);
+        assertThat(rabbitTemplate.receive(QUEUE, RECEIVE_TIMEOUT_MS)).isNotNull();
+
+        long start = System.nanoTime();
+        outboxService.saveOutboxEvent(contractor.getId(), "Contractor", "UPDATED", contractor, EXCHANGE, ROUTING_KEY);
+        Message message = rabbitTemplate.receive(QUEUE, RECEIVE_TIMEOUT_MS);
+        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(message).isNotNull();
+        assertThat(new String(message.getBody(), StandardCharsets.UTF_8)).contains("Notify Company");
+        log.info("Commit-to-delivery latency with LISTEN/NOTIFY: {} ms", latencyMs);
+        assertThat(latencyMs).isLessThan(100);
+    }
+
+    @TestConfiguration
+    static class QueueConfig {
+
+        @Bean
+        Queue notifyBenchmarkQueue() {
+            return new Queue(QUEUE);
+        }
+
+        @Bean
+        DirectExchange notifyBenchmarkExchange() {
+            return new DirectExchange(EXCHANGE);
+        }
+
+        @Bean
+        Binding notifyBenchmarkBinding() {
+            return BindingBuilder.bind(notifyBenchmarkQueue()).to(notifyBenchmarkExchange()).with(ROUTING_KEY);
+        }
+
+        @Bean
+        RabbitAdmin rabbitAdmin(ConnectionFactory connectionFactory) {
+            return new RabbitAdmin(connectionFactory);
+        }
+
+    }
+
+}
@@ -0,0 +1,130 @@
+package io.github.contractormicroservice.benchmark;
+
+import io.github.contractormicroservice.integrationTest.RabbitMQ.TestConfig;
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бенчмарк пропускной способности Outbox-паблишера (событий в секунду) для разных размеров окна
+ * неподтвержденных сообщений и количества дорожек. Окно 1 соответствует отправке с ожиданием подтверждения каждого события
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "application.outbox.publisher.lanes=8",
+        "application.outbox.claim.batch-size=500"
+})
+@Testcontainers
+@Import(TestConfig.class)
+class OutboxPublisherBenchmarkTest {
+
+    private static final int EVENTS = 5_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.13-management");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", rabbitMQ::getAdminUsername);
+        registry.add("spring.rabbitmq.password", rabbitMQ::getAdminPassword);
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+
+        List<OutboxEvent> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            OutboxEvent event = OutboxEvent.builder()
+                    .id(UUID.randomUUID())
+                    .aggregateId("BENCH-" + (i % 500))
+                    .aggregateType("Contractor")
+                    .eventType("UPDATED")
+                    .payload("{\"id\":\"BENCH-" + (i % 500) + "\"}")
+                    .exchange("test_exchange")
+                    .routingKey("test.key")
+                    .build();
+            event.markAsNew();
+            events.add(event);
+        }
+        outboxRepository.saveAll(events);
+    }
+
+    @ParameterizedTest(name = "window = {0}")
+    @ValueSource(ints = {1, 16, 256})
+    void publishThroughput(int windowSize) {
+        Object publisher = AopTestUtils.getTargetObject(outboxService);
+        ReflectionTestUtils.setField(publisher, "windowSize", windowSize);
+        ReflectionTestUtils.setField(publisher, "lanes", 1);
+
+        publishAll("window = " + windowSize);
+    }
+
+    /**
+     * Пропускная способность при ожидании подтверждений (окно 1) должна расти вместе с количеством дорожек
+     */
+    @ParameterizedTest(name = "lanes = {0}")
+    @ValueSource(ints = {1, 2, 4, 8})
+    void publishThroughputByLanes(int lanes) {
+        Object publisher = AopTestUtils.getTargetObject(outboxService);
+        ReflectionTestUtils.setField(publisher, "windowSize", 1);
+        ReflectionTestUtils.setField(publisher, "lanes", lanes);
+
+        publishAll("lanes = " + lanes);
+    }
+
+    private void publishAll(String mode) {
+        long start = System.nanoTime();
+        while (!outboxRepository.findUnprocessedEvents().isEmpty()) {
+            outboxService.publishOutboxEvents();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        log.info("Outbox publisher, {}: {} events in {} s, {} events/s",
+                mode, EVENTS, String.format("%.2f", seconds), String.format("%.0f", EVENTS / seconds));
+
+        assertThat(outboxRepository.findUnprocessedEvents()).isEmpty();
+    }
+
+}
@@ -0,0 +1,95 @@
+package io.github.contractormicroservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарк OutboxServiceImpl.saveOutboxEvent без БД: сериализация payload и построение OutboxEvent.
+ * Репозиторий - заглушка на Proxy, которая только передает сохраняемое событие в Blackhole.
+ * Запуск: mvn test -Pjmh -Djmh.include=OutboxSerializationBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutboxSerializationBenchmark {
+
+    private OutboxServiceImpl outboxService;
+    private ContractorDTO payload;
+    private Blackhole sink;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        sink = blackhole;
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        OutboxEventRepository repository = (OutboxEventRepository) Proxy.newProxyInstance(
+                OutboxEventRepository.class.getClassLoader(), new Class<?>[]{OutboxEventRepository.class},
+                (proxy, method, args) -> {
+                    if (args != null) {
+                        sink.consume(args[0]);
+                    }
+                    return args != null && method.getName().equals("save") ? args[0] : null;
+                });
+
+        outboxService = new OutboxServiceImpl(repository, List.of(), objectMapper, null, null);
+
+        payload = ContractorDTO.builder()
+                .id("contractor-000123")
+                .parentId("contractor-000001")
+                .name("ООО Рога и Копыта")
+                .nameFull("Общество с ограниченной ответственностью Рога и Копыта")
+                .inn("1234567890")
+                .ogrn("123456789012345")
+                .country("RUS")
+                .industry(3L)
+                .orgForm(2L)
+                .build();
+    }
+
+    @Benchmark
+    public void saveOutboxEvent() {
+        outboxService.saveOutboxEvent(payload.getId(), "Contractor", "UPDATED", payload,
+                "contractors_contractor_exchange", "contractor.updated");
+    }
+
+    @Test
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OutboxSerializationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new OutboxSerializationBenchmark().runBenchmark();
+    }
+
+}
@@ -0,0 +1,109 @@
+package io.github.contractormicroservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.cache.CacheInvalidationBus;
+import io.github.contractormicroservice.cache.TwoLevelCacheManager;
+import io.github.contractormicroservice.model.dto.CountryDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бенчмарк задержки попадания в кэш справочника стран: только Redis против двухуровневого кэша (Caffeine + Redis)
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+class ReferenceCacheBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis")
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisCacheManager redisCacheManager;
+
+    @BeforeAll
+    static void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair
+                                .fromSerializer(new GenericJackson2JsonRedisSerializer())))
+                .build();
+        redisCacheManager.initializeCaches();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void hitLatency_redisVersusTwoLevel() {
+        List<CountryDTO> countries = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            countries.add(CountryDTO.builder().id("C" + i).name("Country " + i).build());
+        }
+
+        Cache redisCache = redisCacheManager.getCache("countries");
+        redisCache.put("all", countries);
+
+        TwoLevelCacheManager twoLevelCacheManager = new TwoLevelCacheManager(redisCacheManager,
+                new CacheInvalidationBus(new StringRedisTemplate(connectionFactory), new ObjectMapper(), "cache-invalidation"),
+                100, Duration.ofMinutes(10));
+        Cache twoLevelCache = twoLevelCacheManager.getCache("countries");
+
+        double redisMicros = measureMicros(redisCache);
+        double twoLevelMicros = measureMicros(twoLevelCache);
+
+        log.info("Cache hit latency: redis={} us, two-level={} us", String.format("%.2f", redisMicros),
+                String.format("%.3f", twoLevelMicros));
+
+        assertThat(twoLevelMicros).isLessThan(10.0);
+        assertThat(twoLevelMicros).isLessThan(redisMicros / 10);
+    }
+
+    private static double measureMicros(Cache cache) {
+        for (int i = 0; i < WARMUP; i++) {
+            readOrFail(cache);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            readOrFail(cache);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+
+    private static void readOrFail(Cache cache) {
+        if (cache.get("all") == null) {
+            throw new IllegalStateException("Cache miss in benchmark");
+        }
+    }
+
+}
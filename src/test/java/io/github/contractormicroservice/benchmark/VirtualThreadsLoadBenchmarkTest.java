@@ -0,0 +1,173 @@
+package io.github.contractormicroservice.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочное сравнение обработки запросов в платформенных потоках Tomcat (200 по умолчанию)
+ * и в виртуальных потоках (spring.threads.virtual.enabled=true) при CONCURRENCY одновременных клиентах:
+ * пропускная способность и задержки POST /api/v1/contractor/search и GET /api/v1/contractor/{id}.
+ * Оба режима ограничены пулом соединений Hikari, поэтому его размер задается одинаковым
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+class VirtualThreadsLoadBenchmarkTest {
+
+    private static final int CONTRACTORS = 10_000;
+    private static final int CONCURRENCY = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int POOL_SIZE = 20;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234")
+            .withCommand("postgres", "-c", "max_connections=200");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> POOL_SIZE);
+        registry.add("spring.datasource.hikari.connection-timeout", () -> 120_000);
+        registry.add("logging.level.org.springframework.jdbc.core.JdbcTemplate", () -> "INFO");
+        registry.add("logging.level.org.springframework.jdbc.core.StatementCreatorUtils", () -> "INFO");
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads extends LoadRun {
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads extends LoadRun {
+    }
+
+    abstract static class LoadRun {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @BeforeEach
+        void setUp() {
+            jdbcTemplate.update("DELETE FROM contractor");
+            jdbcTemplate.update("""
+                    INSERT INTO contractor (id, name, name_full, inn, ogrn, is_active)
+                    SELECT 'L' || g,
+                           'Контрагент ' || md5(g::text),
+                           'ООО Контрагент ' || md5(g::text),
+                           (7700000000 + g)::text,
+                           (1027700000000 + g)::text,
+                           true
+                    FROM generate_series(1, ?) g
+                    """, CONTRACTORS);
+            jdbcTemplate.execute("ANALYZE contractor");
+        }
+
+        @Test
+        void concurrentRequests() throws Exception {
+            String mode = getClass().getSimpleName();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            // Прогрев: JIT, пул соединений и кэш планов
+            run(client, 50, 20);
+
+            long start = System.nanoTime();
+            long[] latencies = run(client, CONCURRENCY, REQUESTS_PER_CLIENT);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            log.info("{}: {} clients x {} requests in {} s, {} req/s, p50 {} ms, p99 {} ms, max {} ms",
+                    mode, CONCURRENCY, REQUESTS_PER_CLIENT, String.format("%.1f", seconds),
+                    String.format("%.0f", latencies.length / seconds),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000);
+
+            assertThat(latencies).hasSize(CONCURRENCY * REQUESTS_PER_CLIENT);
+        }
+
+        /**
+         * Каждый клиент - отдельный виртуальный поток, отправляющий запросы последовательно;
+         * поиск чередуется с получением по id
+         * @return задержки всех запросов в наносекундах
+         */
+        private long[] run(HttpClient client, int clients, int requestsPerClient) throws Exception {
+            String baseUrl = "http://localhost:" + port + "/api/v1/contractor";
+            List<Future<long[]>> futures = new ArrayList<>(clients);
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < clients; c++) {
+                    int clientId = c;
+                    futures.add(executor.submit(() -> {
+                        long[] latencies = new long[requestsPerClient];
+                        for (int i = 0; i < requestsPerClient; i++) {
+                            int id = 1 + (clientId * requestsPerClient + i) % CONTRACTORS;
+                            HttpRequest request = i % 2 == 0
+                                    ? HttpRequest.newBuilder(URI.create(baseUrl + "/search?page=0&limit=10"))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"contractor_search\":\"" + (7700000000L + id) + "\"}"))
+                                        .build()
+                                    : HttpRequest.newBuilder(URI.create(baseUrl + "/L" + id)).GET().build();
+
+                            long sent = System.nanoTime();
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            latencies[i] = System.nanoTime() - sent;
+                            assertThat(response.statusCode()).isEqualTo(200);
+                        }
+                        return latencies;
+                    }));
+                }
+            }
+
+            long[] all = new long[clients * requestsPerClient];
+            for (int c = 0; c < clients; c++) {
+                System.arraycopy(futures.get(c).get(), 0, all, c * requestsPerClient, requestsPerClient);
+            }
+            return all;
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1_000_000;
+        }
+
+    }
+
+}
@@ -0,0 +1,178 @@
+package io.github.contractormicroservice.cacheTest;
+
+import io.github.contractormicroservice.cache.ContractorCache;
+import io.github.contractormicroservice.model.dto.CountryDTO;
+import io.github.contractormicroservice.model.entity.Contractor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ContractorCacheTest {
+
+    private CacheManager cacheManager;
+    private ContractorCache contractorCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(ContractorCache.CONTRACTORS, ContractorCache.MISSES);
+        contractorCache = new ContractorCache(cacheManager);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_shouldLoadOnceAndServeRepeatedReadsFromCache() {
+        Function<String, Optional<Contractor>> loader = loader(contractor("C-1"));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(contractorCache.get("C-1", loader)).map(Contractor::getName).contains("Контрагент C-1");
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_shouldCacheUnknownIds() {
+        Function<String, Optional<Contractor>> loader = loader(null);
+
+        assertThat(contractorCache.get("missing", loader)).isEmpty();
+        assertThat(contractorCache.get("missing", loader)).isEmpty();
+
+        assertThat(loads).hasValue(1);
+        assertThat(cacheManager.getCache(ContractorCache.MISSES).get("missing")).isNotNull();
+    }
+
+    @Test
+    void getAll_shouldLoadOnlyIdsMissingFromCacheInOneCall() {
+        contractorCache.get("C-1", loader(contractor("C-1")));
+        contractorCache.get("C-2", loader(null));
+        List<Collection<String>> requested = new ArrayList<>();
+
+        Map<String, Contractor> found = contractorCache.getAll(List.of("C-1", "C-2", "C-3", "C-4"), ids -> {
+            requested.add(List.copyOf(ids));
+            return List.of(contractor("C-3"));
+        });
+
+        assertThat(found).containsOnlyKeys("C-1", "C-3");
+        assertThat(requested).containsExactly(List.of("C-3", "C-4"));
+        assertThat(cacheManager.getCache(ContractorCache.CONTRACTORS).get("C-3")).isNotNull();
+        assertThat(cacheManager.getCache(ContractorCache.MISSES).get("C-4")).isNotNull();
+
+        assertThat(contractorCache.getAll(List.of("C-1", "C-3", "C-4"), ids -> {
+            throw new AssertionError("Loader must not be called for cached ids: " + ids);
+        })).containsOnlyKeys("C-1", "C-3");
+    }
+
+    @Test
+    void evict_shouldDropCachedContractorAndMiss() {
+        contractorCache.get("C-1", loader(contractor("C-1")));
+        contractorCache.get("C-2", loader(null));
+
+        contractorCache.evict("C-1");
+        contractorCache.evict("C-2");
+
+        assertThat(cacheManager.getCache(ContractorCache.CONTRACTORS).get("C-1")).isNull();
+        assertThat(cacheManager.getCache(ContractorCache.MISSES).get("C-2")).isNull();
+    }
+
+    @Test
+    void evict_shouldEvictAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        contractorCache.evict("C-1");
+
+        // Чтение до commit вернуло в кэш старое значение
+        contractorCache.get("C-1", loader(contractor("C-1")));
+        assertThat(cacheManager.getCache(ContractorCache.CONTRACTORS).get("C-1")).isNotNull();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cacheManager.getCache(ContractorCache.CONTRACTORS).get("C-1")).isNull();
+    }
+
+    @Test
+    void clear_shouldDropAllContractorsAndClearAgainAfterCommit() {
+        contractorCache.get("C-1", loader(contractor("C-1")));
+        contractorCache.get("C-2", loader(null));
+
+        TransactionSynchronizationManager.initSynchronization();
+        contractorCache.clear();
+
+        assertThat(cacheManager.getCache(ContractorCache.CONTRACTORS).get("C-1")).isNull();
+        assertThat(cacheManager.getCache(ContractorCache.MISSES).get("C-2")).isNotNull();
+
+        // Чтение до commit вернуло в кэш старые наименования справочника
+        contractorCache.get("C-1", loader(contractor("C-1")));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cacheManager.getCache(ContractorCache.CONTRACTORS).get("C-1")).isNull();
+    }
+
+    @Test
+    void get_shouldFallBackToLoaderWhenCacheFails() {
+        Cache failing = mock(Cache.class);
+        when(failing.get(any(), eq(Contractor.class))).thenThrow(new IllegalStateException("redis is down"));
+        CacheManager failingManager = mock(CacheManager.class);
+        when(failingManager.getCache(any())).thenReturn(failing);
+
+        ContractorCache cache = new ContractorCache(failingManager);
+
+        assertThat(cache.get("C-1", loader(contractor("C-1")))).isPresent();
+        assertThat(cache.get("C-1", loader(contractor("C-1")))).isPresent();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void redisSerializer_shouldKeepDatesDetailsAndActivity() {
+        Contractor contractor = contractor("C-1");
+        contractor.setIsActive(false);
+        contractor.setCreateDate(LocalDateTime.of(2024, 1, 15, 10, 30));
+        contractor.setCountryEntity(CountryDTO.builder().id("RUS").name("Российская Федерация").build());
+
+        RedisSerializer<Contractor> serializer = ContractorCache.redisSerializer();
+        Contractor restored = serializer.deserialize(serializer.serialize(contractor));
+
+        assertThat(restored).isNotNull();
+        assertThat(restored.getId()).isEqualTo("C-1");
+        assertThat(restored.getIsActive()).isFalse();
+        assertThat(restored.getCreateDate()).isEqualTo(contractor.getCreateDate());
+        assertThat(restored.getCountryEntity().getName()).isEqualTo("Российская Федерация");
+    }
+
+    private Function<String, Optional<Contractor>> loader(Contractor contractor) {
+        return id -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(contractor);
+        };
+    }
+
+    private static Contractor contractor(String id) {
+        return Contractor.builder().id(id).name("Контрагент " + id).build();
+    }
+
+}
@@ -0,0 +1,134 @@
+package io.github.contractormicroservice.cacheTest;
+
+import io.github.contractormicroservice.cache.LongIdSet;
+import io.github.contractormicroservice.cache.ReferenceDataRegistry;
+import io.github.contractormicroservice.repository.country.CountryRepository;
+import io.github.contractormicroservice.repository.industry.IndustryRepository;
+import io.github.contractormicroservice.repository.orgForm.OrgFormRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataRegistryTest {
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private IndustryRepository industryRepository;
+
+    @Mock
+    private OrgFormRepository orgFormRepository;
+
+    private ReferenceDataRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ReferenceDataRegistry(countryRepository, industryRepository, orgFormRepository);
+        lenient().when(countryRepository.findAllNames()).thenReturn(Map.of("RUS", "Российская Федерация", "BEL", "Беларусь"));
+        lenient().when(industryRepository.findAllNames()).thenReturn(Map.of(1L, "Строительство", 3L, "Торговля"));
+        lenient().when(orgFormRepository.findAllNames()).thenReturn(Map.of(2L, "ООО", 4L, "АО"));
+    }
+
+    @Test
+    void findMissingReference_shouldValidateInMemoryAfterPreload() {
+        registry.preload();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(registry.findMissingReference("RUS", 3L, 2L)).isNull();
+        }
+
+        verify(countryRepository, times(1)).findAllNames();
+        verify(industryRepository, times(1)).findAllNames();
+        verify(orgFormRepository, times(1)).findAllNames();
+        verify(countryRepository, never()).existsById(anyString());
+        verify(industryRepository, never()).existsById(anyLong());
+        verify(orgFormRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void findMissingReference_shouldReturnSameMessagesAsValidation() {
+        assertThat(registry.findMissingReference("XX", null, null)).isEqualTo("Country not found with id: XX");
+        assertThat(registry.findMissingReference("", 99L, null)).isEqualTo("Industry not found with id: 99");
+        assertThat(registry.findMissingReference(null, null, 99L)).isEqualTo("Org form not found with id: 99");
+        assertThat(registry.findMissingReference(null, null, null)).isNull();
+    }
+
+    @Test
+    void invalidate_shouldReloadOnNextAccess() {
+        registry.preload();
+        when(industryRepository.findAllNames()).thenReturn(Map.of(1L, "Строительство", 3L, "Торговля", 7L, "Энергетика"));
+
+        registry.invalidate();
+
+        assertThat(registry.industryExists(7L)).isTrue();
+        verify(industryRepository, times(2)).findAllNames();
+        verify(industryRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void industryExists_shouldRecheckMissingIdInDatabaseAndReload() {
+        registry.preload();
+        when(industryRepository.existsById(7L)).thenReturn(true);
+
+        assertThat(registry.industryExists(7L)).isTrue();
+        assertThat(registry.industryExists(1L)).isTrue();
+
+        verify(industryRepository, times(2)).findAllNames();
+    }
+
+    @Test
+    void lookup_shouldFillNamesFromMemory() {
+        registry.preload();
+
+        assertThat(registry.country("RUS").getName()).isEqualTo("Российская Федерация");
+        assertThat(registry.industry(3L).getName()).isEqualTo("Торговля");
+        assertThat(registry.orgForm(2L).getId()).isEqualTo(2L);
+        assertThat(registry.orgForm(2L).getName()).isEqualTo("ООО");
+        assertThat(registry.country(null)).isNull();
+        assertThat(registry.industry(null)).isNull();
+
+        verify(countryRepository, times(1)).findAllNames();
+        verify(countryRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void lookup_shouldReloadOnceForIdCreatedElsewhere() {
+        registry.preload();
+        when(orgFormRepository.existsById(anyLong())).thenAnswer(invocation -> invocation.getArgument(0).equals(9L));
+        when(orgFormRepository.findAllNames()).thenReturn(Map.of(2L, "ООО", 4L, "АО", 9L, "ПАО"));
+
+        assertThat(registry.orgForm(9L).getName()).isEqualTo("ПАО");
+        assertThat(registry.orgForm(99L)).isNull();
+
+        verify(orgFormRepository, times(2)).findAllNames();
+    }
+
+    @Test
+    void longIdSet_shouldContainExactlyGivenIds() {
+        long[] ids = LongStream.concat(LongStream.of(0L, -5L, Long.MAX_VALUE), LongStream.rangeClosed(1, 500).map(i -> i * 1024)).toArray();
+        LongIdSet set = LongIdSet.of(Arrays.stream(ids).boxed().toList());
+
+        assertThat(set.size()).isEqualTo(ids.length);
+        for (long id : ids) {
+            assertThat(set.contains(id)).isTrue();
+        }
+        assertThat(set.contains(1L)).isFalse();
+        assertThat(set.contains(1023L)).isFalse();
+        assertThat(LongIdSet.of(List.of()).contains(0L)).isFalse();
+    }
+
+}
@@ -0,0 +1,168 @@
+package io.github.contractormicroservice.cacheTest;
+
+import io.github.contractormicroservice.cache.CacheInvalidationBus;
+import io.github.contractormicroservice.cache.CacheInvalidationMessage;
+import io.github.contractormicroservice.cache.TwoLevelCache;
+import io.github.contractormicroservice.cache.TwoLevelCacheManager;
+import io.github.contractormicroservice.cache.TwoLevelCacheMeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = spy(new ConcurrentMapCacheManager());
+        cacheManager = new TwoLevelCacheManager(remoteCacheManager, invalidationBus, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void get_shouldServeRepeatedReadsFromLocalLevel() {
+        ConcurrentMapCache remote = spy(new ConcurrentMapCache("countries"));
+        doReturn(remote).when(remoteCacheManager).getCache("countries");
+        remote.put("all", List.of("RU"));
+
+        Cache cache = cacheManager.getCache("countries");
+
+        assertThat(cache.get("all").get()).isEqualTo(List.of("RU"));
+        assertThat(cache.get("all").get()).isEqualTo(List.of("RU"));
+        assertThat(cache.get("all", List.class)).isEqualTo(List.of("RU"));
+
+        verify(remote, times(1)).get("all");
+    }
+
+    @Test
+    void evict_shouldEvictBothLevelsAndNotifyOtherInstances() {
+        Cache cache = cacheManager.getCache("countries");
+        cache.put("all", List.of("RU"));
+
+        cache.evict("all");
+
+        assertThat(cache.get("all")).isNull();
+        assertThat(remoteCacheManager.getCache("countries").get("all")).isNull();
+        verify(invalidationBus, times(2)).publish("countries", "all");
+    }
+
+    @Test
+    void clear_shouldNotifyOtherInstancesWithoutKey() {
+        Cache cache = cacheManager.getCache("countries");
+
+        cache.clear();
+
+        verify(invalidationBus).publish(eq("countries"), isNull());
+    }
+
+    @Test
+    void onInvalidation_shouldDropOnlyLocalEntry() {
+        Cache cache = cacheManager.getCache("countries");
+        cache.get("all", () -> List.of("RU"));
+
+        // Другой экземпляр обновил запись в Redis и разослал инвалидацию
+        remoteCacheManager.getCache("countries").put("all", List.of("RU", "US"));
+        assertThat(cache.get("all").get()).isEqualTo(List.of("RU"));
+
+        cacheManager.onInvalidation(new CacheInvalidationMessage("other", "countries", "all"));
+
+        assertThat(cache.get("all").get()).isEqualTo(List.of("RU", "US"));
+    }
+
+    @Test
+    void onInvalidation_shouldClearLocalLevelWhenKeyIsNull() {
+        Cache cache = cacheManager.getCache("industries");
+        cache.get("all", () -> List.of(1L));
+        remoteCacheManager.getCache("industries").clear();
+
+        cacheManager.onInvalidation(new CacheInvalidationMessage("other", "industries", null));
+
+        assertThat(cache.get("all")).isNull();
+        verify(invalidationBus, never()).publish(any(), any());
+    }
+
+    @Test
+    void fill_shouldWriteBothLevelsWithoutNotifyingOtherInstances() {
+        ConcurrentMapCache remote = spy(new ConcurrentMapCache("countries"));
+        doReturn(remote).when(remoteCacheManager).getCache("countries");
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("countries");
+
+        cache.get("all", () -> List.of("RU"));
+        cache.fill("active", List.of("BY"));
+        cache.putIfAbsent("other", List.of("US"));
+        cache.putIfAbsent("other", List.of("KZ"));
+
+        assertThat(cache.get("all").get()).isEqualTo(List.of("RU"));
+        assertThat(cache.get("active").get()).isEqualTo(List.of("BY"));
+        assertThat(cache.get("other").get()).isEqualTo(List.of("US"));
+        verify(remote, never()).get("active");
+        assertThat(cache.getPutCount()).isEqualTo(3);
+        verify(invalidationBus, never()).publish(any(), any());
+    }
+
+    @Test
+    void get_shouldCacheNullLocallyOnlyWhenRemoteAllowsNullValues() {
+        ConcurrentMapCache remote = mock(ConcurrentMapCache.class);
+        when(remote.get(eq("missing"), any(Callable.class))).thenAnswer(invocation -> invocation.<Callable<?>>getArgument(1).call());
+        doReturn(remote).when(remoteCacheManager).getCache("countries");
+        Cache cache = cacheManager.getCache("countries");
+        AtomicInteger loads = new AtomicInteger();
+        Callable<Object> loader = () -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        assertThat(cache.get("missing", loader)).isNull();
+        assertThat(cache.get("missing", loader)).isNull();
+
+        assertThat(loads).hasValue(2);
+
+        Cache nullable = cacheManager.getCache("industries");
+        nullable.get("missing", () -> null);
+        assertThat(nullable.get("missing")).isNotNull();
+        assertThat(nullable.get("missing").get()).isNull();
+    }
+
+    @Test
+    void meterBinder_shouldCountHitsByLevelAndMisses() {
+        Cache cache = cacheManager.getCache("countries");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new TwoLevelCacheMeterBinder((TwoLevelCache) cache, List.of()).bindTo(registry);
+
+        remoteCacheManager.getCache("countries").put("all", List.of("RU"));
+
+        cache.get("missing");
+        cache.get("all");
+        cache.get("all");
+        cache.put("other", List.of("BY"));
+
+        assertThat(registry.get("cache.gets").tag("cache", "countries").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.level.hits").tag("level", "remote").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.level.hits").tag("level", "local").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.puts").functionCounter().count()).isEqualTo(1);
+    }
+
+}
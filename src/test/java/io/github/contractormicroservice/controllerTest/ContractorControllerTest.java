@@ -4,7 +4,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.contractormicroservice.controller.ContractorController;
 import io.github.contractormicroservice.exception.EntityNotFoundException;
 import io.github.contractormicroservice.exception.GlobalExceptionHandler;
+import io.github.contractormicroservice.model.dto.ContractorBatchResult;
 import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.dto.ContractorExportFormat;
+import io.github.contractormicroservice.model.dto.ContractorHierarchyNode;
 import io.github.contractormicroservice.model.dto.CountryDTO;
 import io.github.contractormicroservice.model.dto.IndustryDTO;
 import io.github.contractormicroservice.model.dto.OrgFormDTO;
@@ -17,15 +20,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,7 +44,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class ContractorControllerTest {
 
     private MockMvc mockMvc;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @Mock
     private ContractorService contractorService;
@@ -138,6 +149,135 @@ public class ContractorControllerTest {
                 .save(any(ContractorDTO.class));
     }
 
+    /**
+     * Тест пакетного сохранения контрагентов: результат по каждому элементу
+     * @throws Exception
+     */
+    @Test
+    void saveContractorsBatch_ShouldReturnPerItemResults() throws Exception {
+
+        List<ContractorDTO> input = List.of(
+                ContractorDTO.builder().id("TEST_1").name("TEST_NAME_1").build(),
+                ContractorDTO.builder().id("TEST_2").name("TEST_NAME_2").country("XX").build());
+
+        when(contractorService.saveBatch(input)).thenReturn(List.of(
+                new ContractorBatchResult(0, "TEST_1", ContractorBatchResult.Status.CREATED, null),
+                ContractorBatchResult.failed(1, "TEST_2", "Country not found with id: XX")));
+
+        mockMvc.perform(put("/api/v1/contractor/save/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(input)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].error").value("Country not found with id: XX"));
+
+        verify(contractorService, times(1)).saveBatch(input);
+    }
+
+    /**
+     * Тест выгрузки контрагентов в CSV: заголовок, экранирование и наименования справочников
+     * @throws Exception
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportContractors_ShouldStreamCsv() throws Exception {
+
+        Contractor first = Contractor.builder()
+                .id("TEST_1")
+                .name("ООО \"Рога, Копыта\"")
+                .country("RU")
+                .countryEntity(CountryDTO.builder().id("RU").name("Россия").build())
+                .build();
+        Contractor second = Contractor.builder()
+                .id("TEST_2")
+                .name("TEST_NAME")
+                .industry(3L)
+                .industryEntity(IndustryDTO.builder().id(3L).name("TEST_INDUSTRY").build())
+                .build();
+
+        doAnswer(invocation -> {
+            Consumer<Contractor> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(contractorService).exportContractors(isNull(), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/contractor/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", ContractorExportFormat.CSV.getContentType()))
+                .andExpect(content().string("""
+                        id,parent_id,name,name_full,inn,ogrn,country,country_name,industry,industry_name,org_form,org_form_name,create_date,modify_date
+                        TEST_1,,"ООО ""Рога, Копыта\"\"",,,,RU,Россия,,,,,,
+                        TEST_2,,TEST_NAME,,,,,,3,TEST_INDUSTRY,,,,
+                        """));
+    }
+
+    @Test
+    void getContractors_ShouldReturnContractorsInServiceOrder() throws Exception {
+
+        when(contractorService.getAll(List.of("TEST_2", "MISSING", "TEST_1"))).thenReturn(List.of(
+                Contractor.builder().id("TEST_2").name("SECOND").build(),
+                Contractor.builder().id("TEST_1").name("FIRST").build()));
+
+        mockMvc.perform(post("/api/v1/contractor/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"TEST_2\", \"MISSING\", \"TEST_1\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].id").value("TEST_2"))
+                .andExpect(jsonPath("$[1].id").value("TEST_1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSubtree_ShouldStreamNodesWithDepth() throws Exception {
+
+        Contractor root = Contractor.builder().id("ROOT").name("Головная").build();
+        Contractor child = Contractor.builder().id("CHILD").parentId("ROOT").name("Дочерняя").build();
+
+        when(contractorService.getOne("ROOT")).thenReturn(root);
+        doAnswer(invocation -> {
+            Consumer<ContractorHierarchyNode> consumer = invocation.getArgument(2);
+            consumer.accept(new ContractorHierarchyNode(0, root));
+            consumer.accept(new ContractorHierarchyNode(1, child));
+            return null;
+        }).when(contractorService).exportSubtree(eq("ROOT"), eq(2), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/contractor/{id}/subtree", "ROOT").param("depth", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines.get(0)).get("depth").asInt()).isZero();
+        assertThat(objectMapper.readTree(lines.get(1)).get("depth").asInt()).isEqualTo(1);
+        assertThat(objectMapper.readTree(lines.get(1)).get("id").asText()).isEqualTo("CHILD");
+        assertThat(objectMapper.readTree(lines.get(1)).get("parentId").asText()).isEqualTo("ROOT");
+    }
+
+    @Test
+    void getAncestors_ShouldReturn404ForUnknownContractor() throws Exception {
+
+        when(contractorService.getOne("UNKNOWN")).thenThrow(new EntityNotFoundException("Contractor not found with id: UNKNOWN"));
+
+        mockMvc.perform(get("/api/v1/contractor/{id}/ancestors", "UNKNOWN"))
+                .andExpect(status().isNotFound());
+
+        verify(contractorService, never()).exportAncestors(any(), any(), any());
+    }
+
     /**
      * Тест поиска контрагентов с пагинацией
      * @throws Exception
@@ -208,4 +348,33 @@ public class ContractorControllerTest {
 
     }
 
+    /**
+     * Тест поиска контрагентов с keyset-пагинацией (передан курсор)
+     * @throws Exception
+     */
+    @Test
+    void searchContractorsWithCursor_Success() throws Exception {
+
+        Contractor testContractor = Contractor.builder()
+                .id("TEST_ID")
+                .name("TEST_NAME")
+                .build();
+
+        Pagination testPagination = new Pagination(List.of(testContractor), 1, false, "VEVTVF9JRA");
+
+        when(contractorService.searchContractorsAfter(any(), eq(""), eq(1)))
+                .thenReturn(testPagination);
+
+        mockMvc.perform(post("/api/v1/contractor/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("cursor", "")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contractors[0].id").value("TEST_ID"))
+                .andExpect(jsonPath("$.nextCursor").value("VEVTVF9JRA"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(contractorService, never()).searchContractors(any(), any(), any());
+    }
+
 }
@@ -0,0 +1,150 @@
+package io.github.contractormicroservice.integration.cacheTest;
+
+import io.github.contractormicroservice.cache.ContractorCache;
+import io.github.contractormicroservice.exception.EntityNotFoundException;
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.entity.Contractor;
+import io.github.contractormicroservice.repository.contractor.ContractorRepository;
+import io.github.contractormicroservice.repository.country.CountryRepository;
+import io.github.contractormicroservice.repository.industry.IndustryRepository;
+import io.github.contractormicroservice.repository.orgForm.OrgFormRepository;
+import io.github.contractormicroservice.service.ContractorService;
+import io.github.contractormicroservice.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Интеграционный тест для проверки кэширования контрагентов по id в ContractorService
+ */
+@SpringBootTest
+@Testcontainers
+class ContractorServiceCacheIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres")
+            .withDatabaseName("contractor_service_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private ContractorService contractorService;
+
+    @MockitoBean
+    private ContractorRepository contractorRepository;
+
+    @MockitoBean
+    private CountryRepository countryRepository;
+
+    @MockitoBean
+    private IndustryRepository industryRepository;
+
+    @MockitoBean
+    private OrgFormRepository orgFormRepository;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(ContractorCache.CONTRACTORS).clear();
+        cacheManager.getCache(ContractorCache.MISSES).clear();
+        Mockito.reset(contractorRepository);
+    }
+
+    @Test
+    void getOne_CallRepositoryOnce() {
+        when(contractorRepository.findByIdWithDetails("C-1")).thenReturn(Optional.of(contractor("C-1", "Рога и Копыта")));
+
+        Contractor first = contractorService.getOne("C-1");
+        Contractor second = contractorService.getOne("C-1");
+
+        assertThat(first.getName()).isEqualTo("Рога и Копыта");
+        assertThat(second.getName()).isEqualTo("Рога и Копыта");
+        assertThat(second.getCreateDate()).isEqualTo(first.getCreateDate());
+
+        verify(contractorRepository, times(1)).findByIdWithDetails("C-1");
+        assertThat(cacheManager.getCache(ContractorCache.CONTRACTORS).get("C-1")).isNotNull();
+    }
+
+    @Test
+    void getOne_CacheUnknownId() {
+        when(contractorRepository.findByIdWithDetails("missing")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> contractorService.getOne("missing")).isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> contractorService.getOne("missing")).isInstanceOf(EntityNotFoundException.class);
+
+        verify(contractorRepository, times(1)).findByIdWithDetails("missing");
+    }
+
+    @Test
+    void save_EvictCachedContractorAndMiss() {
+        when(contractorRepository.findByIdWithDetails("C-2")).thenReturn(Optional.empty());
+        when(contractorRepository.save(any(Contractor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThatThrownBy(() -> contractorService.getOne("C-2")).isInstanceOf(EntityNotFoundException.class);
+
+        contractorService.save(ContractorDTO.builder().id("C-2").name("Новый").nameFull("ООО Новый").build());
+
+        when(contractorRepository.findByIdWithDetails("C-2")).thenReturn(Optional.of(contractor("C-2", "Новый")));
+        assertThat(contractorService.getOne("C-2").getName()).isEqualTo("Новый");
+    }
+
+    @Test
+    void deleteOne_EvictCachedContractor() {
+        Contractor contractor = contractor("C-3", "Удаляемый");
+        when(contractorRepository.findByIdWithDetails("C-3")).thenReturn(Optional.of(contractor));
+        when(contractorRepository.findById("C-3")).thenReturn(Optional.of(contractor("C-3", "Удаляемый")));
+        when(contractorRepository.save(any(Contractor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        contractorService.getOne("C-3");
+        contractorService.deleteOne("C-3");
+        contractorService.getOne("C-3");
+
+        verify(contractorRepository, times(2)).findByIdWithDetails("C-3");
+    }
+
+    private static Contractor contractor(String id, String name) {
+        return Contractor.builder()
+                .id(id)
+                .name(name)
+                .nameFull("ООО " + name)
+                .createDate(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .modifyDate(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .build();
+    }
+
+}
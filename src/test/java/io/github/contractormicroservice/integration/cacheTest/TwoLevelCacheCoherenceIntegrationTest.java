@@ -0,0 +1,120 @@
+package io.github.contractormicroservice.integration.cacheTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.cache.CacheInvalidationBus;
+import io.github.contractormicroservice.cache.TwoLevelCacheManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Интеграционный тест согласованности локальных кэшей двух экземпляров сервиса,
+ * работающих с одним Redis: изменение на одном экземпляре сбрасывает L1 другого через pub/sub
+ */
+@Testcontainers
+class TwoLevelCacheCoherenceIntegrationTest {
+
+    private static final String CHANNEL = "cache-invalidation";
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis")
+            .withExposedPorts(6379);
+
+    private Node first;
+    private Node second;
+
+    @BeforeEach
+    void setUp() {
+        first = new Node();
+        second = new Node();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void evictOnOneInstance_shouldInvalidateLocalCacheOfAnother() {
+        Cache firstCache = first.cacheManager.getCache("countries");
+        Cache secondCache = second.cacheManager.getCache("countries");
+
+        firstCache.put("all", List.of("RU"));
+        assertThat(secondCache.get("all").get()).isEqualTo(List.of("RU"));
+
+        // Экземпляр 1 изменяет справочник (@CacheEvict) и заново заполняет кэш
+        firstCache.evict("all");
+        firstCache.put("all", List.of("RU", "US"));
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(secondCache.get("all").get()).isEqualTo(List.of("RU", "US")));
+    }
+
+    @Test
+    void clearOnOneInstance_shouldClearLocalCacheOfAnother() {
+        Cache firstCache = first.cacheManager.getCache("industries");
+        Cache secondCache = second.cacheManager.getCache("industries");
+
+        firstCache.put("all", List.of(1L));
+        assertThat(secondCache.get("all")).isNotNull();
+
+        firstCache.clear();
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(secondCache.get("all")).isNull());
+    }
+
+    /**
+     * Экземпляр сервиса: собственные соединение, менеджер кэшей и подписка на инвалидации
+     */
+    private static class Node {
+
+        private final LettuceConnectionFactory connectionFactory;
+        private final RedisMessageListenerContainer listenerContainer;
+        private final TwoLevelCacheManager cacheManager;
+
+        Node() {
+            connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+
+            RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory).build();
+            redisCacheManager.initializeCaches();
+
+            StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+            CacheInvalidationBus bus = new CacheInvalidationBus(redisTemplate, new ObjectMapper(), CHANNEL);
+            cacheManager = new TwoLevelCacheManager(redisCacheManager, bus, 100, Duration.ofMinutes(10));
+
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> bus.decode(message).ifPresent(cacheManager::onInvalidation),
+                    new ChannelTopic(CHANNEL));
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+        }
+
+        void close() {
+            listenerContainer.stop();
+            connectionFactory.destroy();
+        }
+
+    }
+
+}
@@ -1,9 +1,13 @@
 package io.github.contractormicroservice.integrationTest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.dto.ContractorHierarchyNode;
 import io.github.contractormicroservice.model.entity.Contractor;
+import io.github.contractormicroservice.model.entity.ContractorCursor;
 import io.github.contractormicroservice.model.entity.ContractorFilter;
 import io.github.contractormicroservice.model.entity.Pagination;
+import io.github.contractormicroservice.repository.contractor.ContractorJdbcRepositoryImpl;
 import io.github.contractormicroservice.repository.contractor.ContractorRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,17 +15,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -51,6 +68,12 @@ public class ContractorIntegrationTest {
     @Autowired
     private ContractorRepository contractorRepository;
 
+    @Autowired
+    private ContractorJdbcRepositoryImpl contractorJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
 
@@ -218,6 +241,65 @@ public class ContractorIntegrationTest {
         assertThat(result.getContractors().getFirst().getName()).contains("Рога");
     }
 
+    /**
+     * Тест общего количества: учитывает те же фильтры, что и выборка страницы
+     */
+    @Test
+    void searchContractors_TotalElementsRespectFilters() {
+        ContractorFilter filter = new ContractorFilter();
+        filter.setContractorSearch("Рога");
+
+        Pagination result = contractorRepository.searchContractors(filter, 0, 10);
+
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getTotalEstimated()).isNull();
+        assertThat(contractorRepository.searchContractors(new ContractorFilter(), 0, 10).getTotalElements()).isEqualTo(2);
+    }
+
+    /**
+     * Тест режима cached: количество по одному и тому же (нормализованному) фильтру берется из кэша
+     */
+    @Test
+    void searchContractors_CachedCountMode() {
+        ReflectionTestUtils.setField(contractorJdbcRepository, "countMode", ContractorJdbcRepositoryImpl.CountMode.CACHED);
+        try {
+            ContractorFilter filter = new ContractorFilter();
+            filter.setContractorSearch("Webbee");
+            assertThat(contractorRepository.searchContractors(filter, 0, 10).getTotalElements()).isEqualTo(1);
+
+            contractorRepository.save(Contractor.builder()
+                    .id("contractor-4")
+                    .name("Webbee second")
+                    .createDate(LocalDateTime.now())
+                    .isActive(true)
+                    .isNew(true)
+                    .build());
+
+            filter.setContractorSearch(" WEBBEE ");
+            Pagination result = contractorRepository.searchContractors(filter, 0, 10);
+
+            assertThat(result.getContractors()).hasSize(2);
+            assertThat(result.getTotalElements()).isEqualTo(1);
+        } finally {
+            ReflectionTestUtils.setField(contractorJdbcRepository, "countMode", ContractorJdbcRepositoryImpl.CountMode.EXACT);
+        }
+    }
+
+    /**
+     * Тест поиска по подстроке со спецсимволами LIKE: '%' и '_' ищутся как обычные символы
+     */
+    @Test
+    void searchContractors_LikeWildcardsAreEscaped() {
+        ContractorFilter filter = new ContractorFilter();
+        filter.setContractorSearch("%");
+
+        assertThat(contractorRepository.searchContractors(filter, 0, 10).getContractors()).isEmpty();
+
+        filter.setContractorSearch("р_га");
+
+        assertThat(contractorRepository.searchContractors(filter, 0, 10).getContractors()).isEmpty();
+    }
+
     /**
      * Тест поиска контрагентов с пагинацией с фильтром по Industry (с нулевым значением)
      */
@@ -231,4 +313,191 @@ public class ContractorIntegrationTest {
         assertThat(result.getContractors()).hasSize(2);
     }
 
+    /**
+     * Тест keyset-пагинации: обход всех активных контрагентов по курсору
+     */
+    @Test
+    void searchContractorsAfter_WalksPagesByCursor() {
+
+        Pagination firstPage = contractorRepository.searchContractorsAfter(null, null, 1);
+
+        assertThat(firstPage.getContractors()).hasSize(1);
+        assertThat(firstPage.getContractors().getFirst().getId()).isEqualTo("contractor-1");
+        assertThat(firstPage.getHasNext()).isTrue();
+        assertThat(firstPage.getHasPrevious()).isFalse();
+        assertThat(firstPage.getTotalElements()).isNull();
+
+        String afterId = ContractorCursor.decode(firstPage.getNextCursor());
+        Pagination secondPage = contractorRepository.searchContractorsAfter(null, afterId, 1);
+
+        assertThat(secondPage.getContractors()).hasSize(1);
+        assertThat(secondPage.getContractors().getFirst().getId()).isEqualTo("contractor-2");
+        assertThat(secondPage.getHasNext()).isFalse();
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(secondPage.getHasPrevious()).isTrue();
+    }
+
+    /**
+     * Тест пакетного upsert: создание, обновление и ошибка справочника в одной пачке,
+     * события outbox только для сохраненных контрагентов
+     */
+    @Test
+    void saveContractorsBatch_CreatesUpdatesAndReportsFailures() throws Exception {
+
+        List<ContractorDTO> batch = List.of(
+                ContractorDTO.builder().id("batch-1").name("Batch created").country("ABH").industry(3L).orgForm(2L).build(),
+                ContractorDTO.builder().id("contractor-1").name("Batch updated").country("ABH").industry(3L).orgForm(2L).build(),
+                ContractorDTO.builder().id("batch-2").name("Batch failed").country("XX").build());
+
+        mockMvc.perform(put("/api/v1/contractor/save/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("UPDATED"))
+                .andExpect(jsonPath("$[2].status").value("FAILED"))
+                .andExpect(jsonPath("$[2].error").value("Country not found with id: XX"));
+
+        assertThat(contractorRepository.findByIdWithDetails("batch-1")).isPresent();
+        assertThat(contractorRepository.findByIdWithDetails("contractor-1").orElseThrow().getName()).isEqualTo("Batch updated");
+        assertThat(contractorRepository.findByIdWithDetails("batch-2")).isEmpty();
+
+        Integer events = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id IN ('batch-1', 'contractor-1', 'batch-2')", Integer.class);
+        assertThat(events).isEqualTo(2);
+    }
+
+    /**
+     * Тест пакетного upsert с родителями: дочерний элемент перед родителем сохраняется,
+     * элемент с неизвестным родителем получает FAILED, не откатывая остальную пачку
+     */
+    @Test
+    void saveContractorsBatch_OrdersParentsFirstAndReportsUnknownParent() throws Exception {
+
+        List<ContractorDTO> batch = List.of(
+                ContractorDTO.builder().id("batch-child").parentId("batch-parent").name("Batch child").country("ABH").build(),
+                ContractorDTO.builder().id("batch-parent").name("Batch parent").country("ABH").build(),
+                ContractorDTO.builder().id("batch-orphan").parentId("missing").name("Batch orphan").country("ABH").build());
+
+        mockMvc.perform(put("/api/v1/contractor/save/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("CREATED"))
+                .andExpect(jsonPath("$[2].status").value("FAILED"))
+                .andExpect(jsonPath("$[2].error").value("Parent contractor not found with id: missing"));
+
+        assertThat(contractorRepository.findByIdWithDetails("batch-child").orElseThrow().getParentId()).isEqualTo("batch-parent");
+        assertThat(contractorRepository.findByIdWithDetails("batch-orphan")).isEmpty();
+    }
+
+    /**
+     * Тест получения нескольких контрагентов одним запросом: отсутствующие id пропускаются, справочники заполнены
+     */
+    @Test
+    void findAllByIdWithDetails_ReturnsExistingContractors() {
+        List<Contractor> contractors = contractorRepository.findAllByIdWithDetails(List.of("contractor-2", "missing", "contractor-1"));
+
+        assertThat(contractors).extracting(Contractor::getId).containsExactlyInAnyOrder("contractor-1", "contractor-2");
+        assertThat(contractors).allSatisfy(contractor -> assertThat(contractor.getIndustryEntity().getId()).isEqualTo(3L));
+        assertThat(contractorRepository.findAllByIdWithDetails(List.of())).isEmpty();
+    }
+
+    /**
+     * Тест получения контрагентов по списку id через API: порядок запроса, без несуществующих и повторов
+     */
+    @Test
+    void getContractors_ReturnsContractorsInRequestOrder() throws Exception {
+        mockMvc.perform(post("/api/v1/contractor/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"contractor-2\", \"missing\", \"contractor-1\", \"contractor-2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value("contractor-2"))
+                .andExpect(jsonPath("$[1].id").value("contractor-1"))
+                .andExpect(jsonPath("$[1].countryEntity.name").value("Абхазия"));
+    }
+
+    /**
+     * Тест поддерева: обход в глубину, неактивные контрагенты и их потомки пропускаются, глубина ограничивается
+     */
+    @Test
+    void streamSubtree_WalksActiveDescendantsDepthFirst() {
+        insertHierarchy();
+
+        List<ContractorHierarchyNode> subtree = new ArrayList<>();
+        contractorRepository.streamSubtree("h-root", 10, subtree::add);
+
+        assertThat(subtree).extracting(node -> node.getContractor().getId())
+                .containsExactly("h-root", "h-a", "h-a-1", "h-b");
+        assertThat(subtree).extracting(ContractorHierarchyNode::getDepth).containsExactly(0, 1, 2, 1);
+        assertThat(subtree.getFirst().getContractor().getCountryEntity().getName()).isEqualTo("Абхазия");
+
+        List<ContractorHierarchyNode> limited = new ArrayList<>();
+        contractorRepository.streamSubtree("h-root", 1, limited::add);
+        assertThat(limited).extracting(node -> node.getContractor().getId()).containsExactly("h-root", "h-a", "h-b");
+    }
+
+    /**
+     * Тест цепочки родителей: от контрагента до корня, с ограничением количества уровней
+     */
+    @Test
+    void streamAncestors_WalksUpToRoot() {
+        insertHierarchy();
+
+        List<ContractorHierarchyNode> ancestors = new ArrayList<>();
+        contractorRepository.streamAncestors("h-a-1", 10, ancestors::add);
+
+        assertThat(ancestors).extracting(node -> node.getContractor().getId()).containsExactly("h-a-1", "h-a", "h-root");
+        assertThat(ancestors).extracting(ContractorHierarchyNode::getDepth).containsExactly(0, 1, 2);
+
+        List<ContractorHierarchyNode> limited = new ArrayList<>();
+        contractorRepository.streamAncestors("h-a-1", 1, limited::add);
+        assertThat(limited).extracting(node -> node.getContractor().getId()).containsExactly("h-a-1", "h-a");
+    }
+
+    /**
+     * h-root -> h-a -> h-a-1, h-root -> h-b, h-root -> h-deleted (неактивный) -> h-orphan
+     */
+    private void insertHierarchy() {
+        String sql = "INSERT INTO contractor (id, parent_id, name, country, is_active) VALUES (?, ?, ?, ?, ?)";
+        jdbcTemplate.update(sql, "h-root", null, "Головная", "ABH", true);
+        jdbcTemplate.update(sql, "h-b", "h-root", "Филиал Б", null, true);
+        jdbcTemplate.update(sql, "h-a", "h-root", "Филиал А", null, true);
+        jdbcTemplate.update(sql, "h-a-1", "h-a", "Отделение А-1", null, true);
+        jdbcTemplate.update(sql, "h-deleted", "h-root", "Удаленный", null, false);
+        jdbcTemplate.update(sql, "h-orphan", "h-deleted", "Потомок удаленного", null, true);
+    }
+
+    /**
+     * Тест выгрузки NDJSON: все активные контрагенты по фильтру, по одному на строку, в порядке id
+     */
+    @Test
+    void exportContractors_StreamsAllMatchingRowsAsNdjson() throws Exception {
+
+        MvcResult result = mockMvc.perform(post("/api/v1/contractor/export")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"industry\": 3}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<Contractor> exported = body.lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, Contractor.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+
+        assertThat(exported).extracting(Contractor::getId).containsExactly("contractor-1", "contractor-2");
+        assertThat(exported.getFirst().getCountryEntity().getId()).isEqualTo("ABH");
+    }
+
 }
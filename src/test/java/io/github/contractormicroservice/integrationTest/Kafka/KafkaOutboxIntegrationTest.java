@@ -0,0 +1,127 @@
+package io.github.contractormicroservice.integrationTest.Kafka;
+
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxService;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.kafka.KafkaContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Интеграционный тест отправки Outbox-событий в Kafka: события назначения из application.outbox.kafka.destinations
+ * уходят в топик с ключом aggregateId и помечаются обработанными после подтверждения брокера
+ */
+@SpringBootTest(properties = {
+        "application.outbox.kafka.enabled=true",
+        "application.outbox.kafka.destinations=" + KafkaOutboxIntegrationTest.TOPIC,
+        "application.outbox.poll-delay-ms=60000"
+})
+@Testcontainers
+class KafkaOutboxIntegrationTest {
+
+    static final String TOPIC = "contractor-events";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234");
+
+    @Container
+    static KafkaContainer kafka = new KafkaContainer("apache/kafka-native:3.8.0");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void publishOutboxEvents_shouldSendEventsKeyedByAggregateId() {
+        for (int i = 1; i <= 3; i++) {
+            ContractorDTO contractor = new ContractorDTO();
+            contractor.setId("KAFKA-" + (i % 2));
+            contractor.setName("Company " + i);
+            outboxService.saveOutboxEvent(contractor.getId(), "Contractor", "ContractorUpdated", contractor, TOPIC, "");
+        }
+        List<String> eventIds = outboxRepository.findUnprocessedEvents().stream()
+                .map(event -> event.getId().toString())
+                .toList();
+
+        outboxService.publishOutboxEvents();
+
+        List<ConsumerRecord<String, String>> received = consume(3);
+        assertThat(received).extracting(ConsumerRecord::key).containsExactlyInAnyOrder("KAFKA-1", "KAFKA-0", "KAFKA-1");
+        assertThat(received).extracting(record -> new String(record.headers().lastHeader("messageId").value(), StandardCharsets.UTF_8))
+                .containsExactlyInAnyOrderElementsOf(eventIds);
+        // События одного агрегата лежат в одной секции в порядке создания
+        List<ConsumerRecord<String, String>> sameAggregate = received.stream()
+                .filter(record -> record.key().equals("KAFKA-1"))
+                .sorted(Comparator.comparingLong(ConsumerRecord::offset))
+                .toList();
+        assertThat(sameAggregate).extracting(ConsumerRecord::partition).containsOnly(sameAggregate.get(0).partition());
+        assertThat(sameAggregate.get(0).value()).contains("Company 1");
+        assertThat(sameAggregate.get(1).value()).contains("Company 3");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> outboxRepository.findUnprocessedEvents().isEmpty());
+        assertThat(outboxRepository.findAll()).allMatch(OutboxEvent::getProcessed);
+    }
+
+    private List<ConsumerRecord<String, String>> consume(int count) {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers(),
+                ConsumerConfig.GROUP_ID_CONFIG, "outbox-test-" + UUID.randomUUID(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class
+        );
+
+        List<ConsumerRecord<String, String>> received = new ArrayList<>();
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(config)) {
+            consumer.subscribe(List.of(TOPIC));
+            await().atMost(Duration.ofSeconds(30)).until(() -> {
+                consumer.poll(Duration.ofMillis(200)).forEach(received::add);
+                return received.size() >= count;
+            });
+        }
+        return received;
+    }
+
+}
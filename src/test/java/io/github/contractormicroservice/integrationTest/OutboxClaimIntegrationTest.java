@@ -0,0 +1,142 @@
+package io.github.contractormicroservice.integrationTest;
+
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционный тест захвата (claim) событий outbox несколькими экземплярами через FOR UPDATE SKIP LOCKED:
+ * экземпляры делят очередь без повторной обработки, порядок событий агрегата сохраняется.
+ * Рост пропускной способности с количеством экземпляров измеряет OutboxClaimBenchmarkTest
+ */
+@SpringBootTest
+@Testcontainers
+public class OutboxClaimIntegrationTest {
+
+    private static final int AGGREGATES = 100;
+    private static final int EVENTS_PER_AGGREGATE = 10;
+    private static final int CLAIM_LIMIT = 5;
+    private static final long PUBLISH_COST_MS = 1;
+
+    @Container
+    public static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int seq = 0; seq < EVENTS_PER_AGGREGATE; seq++) {
+            for (int aggregate = 0; aggregate < AGGREGATES; aggregate++) {
+                OutboxEvent event = OutboxEvent.builder()
+                        .id(UUID.randomUUID())
+                        .aggregateId("CLAIM-" + aggregate)
+                        .aggregateType("Contractor")
+                        .eventType("UPDATED")
+                        .payload(String.valueOf(seq))
+                        .exchange("test_exchange")
+                        .routingKey("test.key")
+                        .createdAt(base.plusNanos((seq * AGGREGATES + aggregate) * 1000L))
+                        .build();
+                event.markAsNew();
+                events.add(event);
+            }
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    /**
+     * Тест: одно событие не захватывается двумя экземплярами, события агрегата обрабатываются по порядку
+     */
+    @Test
+    void claimEvents_WorkersSplitBacklogWithoutDuplicatesAndKeepOrder() throws Exception {
+        Map<UUID, AtomicInteger> processedTimes = new ConcurrentHashMap<>();
+        Map<String, List<Integer>> aggregateSequences = new ConcurrentHashMap<>();
+
+        runWorkers(4, processedTimes, aggregateSequences);
+
+        assertThat(processedTimes).hasSize(AGGREGATES * EVENTS_PER_AGGREGATE);
+        assertThat(processedTimes.values()).allMatch(times -> times.get() == 1);
+        assertThat(aggregateSequences).hasSize(AGGREGATES);
+        aggregateSequences.values().forEach(sequence -> assertThat(sequence).isSorted());
+        assertThat(outboxEventRepository.findUnprocessedEvents()).isEmpty();
+    }
+
+    /**
+     * Запускает workers экземпляров-обработчиков, каждый из которых захватывает события под своим id,
+     * "публикует" их (с фиксированной задержкой, имитирующей брокер) и отмечает обработанными
+     */
+    private void runWorkers(int workers, Map<UUID, AtomicInteger> processedTimes,
+                            Map<String, List<Integer>> aggregateSequences) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                String workerId = "worker-" + i;
+                futures.add(executor.submit(() -> {
+                    while (true) {
+                        List<OutboxEvent> claimed = outboxEventRepository.claimEvents(workerId, 30, CLAIM_LIMIT);
+                        if (claimed.isEmpty()) {
+                            if (outboxEventRepository.findUnprocessedEvents().isEmpty()) {
+                                return null;
+                            }
+                            Thread.sleep(5);
+                            continue;
+                        }
+                        for (OutboxEvent event : claimed) {
+                            Thread.sleep(PUBLISH_COST_MS);
+                            processedTimes.computeIfAbsent(event.getId(), id -> new AtomicInteger()).incrementAndGet();
+                            aggregateSequences.computeIfAbsent(event.getAggregateId(),
+                                    id -> Collections.synchronizedList(new ArrayList<>()))
+                                    .add(Integer.parseInt(event.getPayload()));
+                            outboxEventRepository.markAsProcessed(event.getId().toString());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
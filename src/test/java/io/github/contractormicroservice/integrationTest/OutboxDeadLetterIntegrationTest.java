@@ -0,0 +1,134 @@
+package io.github.contractormicroservice.integrationTest;
+
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+import io.github.contractormicroservice.repository.outbox.OutboxEventJdbcRepository.OutboxDeadLetter;
+import io.github.contractormicroservice.repository.outbox.OutboxEventJdbcRepository.OutboxFailure;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционный тест повторной отправки событий outbox: отложенное событие не захватывается до next_attempt_at
+ * и не задерживает другие агрегаты, исчерпавшее попытки событие переносится в outbox_dead_letter и возвращается из него
+ */
+@SpringBootTest(properties = "application.outbox.poll-delay-ms=600000")
+@Testcontainers
+class OutboxDeadLetterIntegrationTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private OutboxEvent poison;
+    private OutboxEvent next;
+    private OutboxEvent other;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM outbox_dead_letter");
+
+        LocalDateTime base = LocalDateTime.now().minusMinutes(1);
+        poison = event("POISON", base);
+        next = event("POISON", base.plusSeconds(1));
+        other = event("HEALTHY", base.plusSeconds(2));
+        outboxEventRepository.saveAll(List.of(poison, next, other));
+    }
+
+    @Test
+    void recordFailures_shouldBackOffFailedAggregateOnly() {
+        fail(poison);
+
+        List<OutboxEvent> claimed = outboxEventRepository.claimEvents("worker", 30, 10);
+
+        assertThat(claimed).extracting(OutboxEvent::getId).containsExactly(other.getId());
+        OutboxEvent failed = outboxEventRepository.findUnprocessedEvents().stream()
+                .filter(event -> event.getId().equals(poison.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).isEqualTo("Rejected by broker: nack");
+        assertThat(failed.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(50));
+    }
+
+    @Test
+    void recordFailures_shouldMoveEventToDeadLetterAfterMaxAttemptsAndReplayIt() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            fail(poison);
+        }
+
+        List<OutboxDeadLetter> deadLetters = outboxEventRepository.findDeadLetters(10);
+        assertThat(deadLetters).extracting(OutboxDeadLetter::id).containsExactly(poison.getId().toString());
+        assertThat(deadLetters.get(0).attempts()).isEqualTo(MAX_ATTEMPTS);
+
+        // Следующее событие агрегата больше не ждет "ядовитое"
+        assertThat(outboxEventRepository.claimEvents("worker", 30, 10))
+                .extracting(OutboxEvent::getId)
+                .containsExactly(next.getId(), other.getId());
+        outboxEventRepository.markAsProcessedBatch(List.of(next.getId().toString(), other.getId().toString()));
+
+        assertThat(outboxEventRepository.replayDeadLetter(poison.getId().toString())).isTrue();
+        assertThat(outboxEventRepository.replayDeadLetter(poison.getId().toString())).isFalse();
+        assertThat(outboxEventRepository.findDeadLetters(10)).isEmpty();
+
+        List<OutboxEvent> replayed = outboxEventRepository.claimEvents("worker", 30, 10);
+        assertThat(replayed).extracting(OutboxEvent::getId).containsExactly(poison.getId());
+        assertThat(replayed.get(0).getAttempts()).isZero();
+    }
+
+    /**
+     * Неудачная попытка отправки; первая задержка - 60 секунд
+     */
+    private void fail(OutboxEvent event) {
+        outboxEventRepository.recordFailures(List.of(new OutboxFailure(event.getId().toString(), "Rejected by broker: nack")),
+                MAX_ATTEMPTS, 60_000, 600_000);
+    }
+
+    private static OutboxEvent event(String aggregateId, LocalDateTime createdAt) {
+        OutboxEvent event = OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateId(aggregateId)
+                .aggregateType("Contractor")
+                .eventType("UPDATED")
+                .payload("{}")
+                .exchange("test_exchange")
+                .routingKey("test.key")
+                .createdAt(createdAt)
+                .build();
+        event.markAsNew();
+        return event;
+    }
+
+}
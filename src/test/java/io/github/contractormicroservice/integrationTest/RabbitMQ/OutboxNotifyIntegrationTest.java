@@ -0,0 +1,96 @@
+package io.github.contractormicroservice.integrationTest.RabbitMQ;
+
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Интеграционный тест режима LISTEN/NOTIFY: событие доставляется в RabbitMQ сразу после commit.
+ * Интервал резервного опроса в тесте - 60 секунд, поэтому доставка за несколько секунд возможна только по уведомлению.
+ * Целевая задержка 100 мс проверяется в OutboxNotifyLatencyBenchmarkTest
+ */
+@SpringBootTest(properties = {
+        "application.outbox.notify.enabled=true",
+        "application.outbox.poll-delay-ms=60000"
+})
+@Testcontainers
+@Import(TestConfig.class)
+class OutboxNotifyIntegrationTest {
+
+    private static final String QUEUE = "test_queue";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.13-management");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", rabbitMQ::getAdminUsername);
+        registry.add("spring.rabbitmq.password", rabbitMQ::getAdminPassword);
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private RabbitAdmin rabbitAdmin;
+
+    @Autowired
+    private RabbitMQIntegrationTest.MessageReceiver messageReceiver;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAll();
+        rabbitAdmin.purgeQueue(QUEUE, false);
+        messageReceiver.clear();
+    }
+
+    @Test
+    void saveOutboxEvent_shouldBePublishedRightAfterCommit() {
+        ContractorDTO contractor = new ContractorDTO();
+        contractor.setId("NOTIFY-1");
+        contractor.setName("Notify Company");
+
+        // Прогрев: первое событие проходит через установку соединений с брокером
+        outboxService.saveOutboxEvent(contractor.getId(), "Contractor", "CREATED", contractor, "test_exchange", "test.key");
+        await().atMost(Duration.ofSeconds(10)).until(() -> messageReceiver.getMessageCount() == 1);
+
+        outboxService.saveOutboxEvent(contractor.getId(), "Contractor", "UPDATED", contractor, "test_exchange", "test.key");
+        await().atMost(Duration.ofSeconds(5)).until(() -> messageReceiver.getMessageCount() == 2);
+
+        assertThat(messageReceiver.getLastMessage()).contains("Notify Company");
+        await().atMost(Duration.ofSeconds(5)).until(() -> outboxRepository.findUnprocessedEvents().isEmpty());
+    }
+
+}
@@ -0,0 +1,119 @@
+package io.github.contractormicroservice.integrationTest.RabbitMQ;
+
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.dto.OutboxEventRequest;
+import io.github.contractormicroservice.model.entity.OutboxEvent;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Интеграционный тест режима логической репликации: события читаются из WAL (wal_level=logical),
+ * отправляются в RabbitMQ без ожидания опроса таблицы (интервал опроса в тесте - 10 минут) и не отправляются опросом повторно,
+ * а LSN слота продвигается после подтверждения брокера
+ */
+@SpringBootTest(properties = {
+        "application.outbox.replication.enabled=true",
+        "application.outbox.poll-delay-ms=600000"
+})
+@Testcontainers
+@Import(TestConfig.class)
+class OutboxReplicationIntegrationTest {
+
+    private static final String QUEUE = "test_queue";
+    private static final String SLOT = "outbox_slot";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("contractor_db")
+            .withUsername("contractor")
+            .withPassword("1234")
+            .withCommand("postgres", "-c", "wal_level=logical");
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.13-management");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getAmqpPort);
+        registry.add("spring.rabbitmq.username", rabbitMQ::getAdminUsername);
+        registry.add("spring.rabbitmq.password", rabbitMQ::getAdminPassword);
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RabbitAdmin rabbitAdmin;
+
+    @Autowired
+    private RabbitMQIntegrationTest.MessageReceiver messageReceiver;
+
+    @BeforeEach
+    void setup() {
+        await().atMost(Duration.ofSeconds(30)).until(() -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_replication_slots WHERE slot_name = ? AND active", Integer.class, SLOT) == 1);
+        outboxRepository.deleteAll();
+        rabbitAdmin.purgeQueue(QUEUE, false);
+        messageReceiver.clear();
+    }
+
+    @Test
+    void saveOutboxEvents_shouldBePublishedFromWalAndAcknowledgeSlot() {
+        List<OutboxEventRequest> requests = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> {
+                    ContractorDTO contractor = new ContractorDTO();
+                    contractor.setId("WAL-1");
+                    contractor.setName("Company " + i);
+                    return new OutboxEventRequest(contractor.getId(), "Contractor", "UPDATED", contractor, "test_exchange", "test.key");
+                })
+                .toList();
+
+        String lsnBeforeInsert = jdbcTemplate.queryForObject("SELECT pg_current_wal_insert_lsn()::text", String.class);
+        outboxService.saveOutboxEvents(requests);
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> messageReceiver.getMessageCount() == 3);
+        assertThat(messageReceiver.getLastMessage()).contains("Company 3");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> outboxRepository.findUnprocessedEvents().isEmpty());
+        assertThat(outboxRepository.findAll()).allMatch(OutboxEvent::getProcessed);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT confirmed_flush_lsn > ?::pg_lsn FROM pg_replication_slots WHERE slot_name = ?", Boolean.class, lsnBeforeInsert, SLOT)));
+
+        // Опрос не отправляет события, уже отправленные по WAL
+        outboxService.publishOutboxEvents();
+        await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(1)).until(() -> messageReceiver.getMessageCount() == 3);
+    }
+
+}
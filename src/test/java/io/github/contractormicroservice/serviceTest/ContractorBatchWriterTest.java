@@ -0,0 +1,100 @@
+package io.github.contractormicroservice.serviceTest;
+
+import io.github.contractormicroservice.cache.ContractorCache;
+import io.github.contractormicroservice.cache.ReferenceDataRegistry;
+import io.github.contractormicroservice.model.dto.ContractorBatchItem;
+import io.github.contractormicroservice.model.dto.ContractorBatchResult;
+import io.github.contractormicroservice.model.dto.ContractorDTO;
+import io.github.contractormicroservice.model.dto.OutboxEventRequest;
+import io.github.contractormicroservice.model.entity.Contractor;
+import io.github.contractormicroservice.repository.contractor.ContractorRepository;
+import io.github.contractormicroservice.service.ContractorBatchWriter;
+import io.github.contractormicroservice.service.OutboxService;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContractorBatchWriterTest {
+
+    @Mock
+    private ContractorRepository contractorRepository;
+
+    @Mock
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private ContractorCache contractorCache;
+
+    private ContractorBatchWriter batchWriter;
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = new ContractorBatchWriter(contractorRepository, referenceDataRegistry, outboxService, validator, contractorCache);
+    }
+
+    @Test
+    void write_shouldFailItemsWithUnknownParent() {
+
+        when(contractorRepository.findExistingIds(Set.of("child-1", "child-2", "child-3", "parent-1", "missing")))
+                .thenReturn(Set.of("parent-1"));
+
+        List<ContractorBatchResult> results = batchWriter.write(List.of(
+                item(0, "child-1", "parent-1"),
+                item(1, "child-2", "missing"),
+                item(2, "child-3", "child-2")));
+
+        assertEquals(ContractorBatchResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(ContractorBatchResult.Status.FAILED, results.get(1).getStatus());
+        assertEquals("Parent contractor not found with id: missing", results.get(1).getError());
+        assertEquals(ContractorBatchResult.Status.FAILED, results.get(2).getStatus());
+        assertEquals("Parent contractor not found with id: child-2", results.get(2).getError());
+        verify(contractorRepository).upsertBatch(argThat(contractors -> contractors.stream().map(Contractor::getId).toList()
+                .equals(List.of("child-1"))));
+        verify(outboxService).saveOutboxEvents(argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    void write_shouldSaveParentsBeforeChildrenListedFirst() {
+
+        when(contractorRepository.findExistingIds(anySet())).thenReturn(Set.of());
+
+        List<ContractorBatchResult> results = batchWriter.write(List.of(
+                item(0, "grandchild", "child"),
+                item(1, "child", "parent"),
+                item(2, "parent", null)));
+
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == ContractorBatchResult.Status.CREATED));
+        assertEquals(List.of(0, 1, 2), results.stream().map(ContractorBatchResult::getIndex).toList());
+        verify(contractorRepository).upsertBatch(argThat(contractors -> contractors.stream().map(Contractor::getId).toList()
+                .equals(List.of("parent", "child", "grandchild"))));
+        verify(outboxService).saveOutboxEvents(argThat(events -> events.stream().map(OutboxEventRequest::aggregateId).toList()
+                .equals(List.of("parent", "child", "grandchild"))));
+    }
+
+    private ContractorBatchItem item(int index, String id, String parentId) {
+        return ContractorBatchItem.of(index, ContractorDTO.builder()
+                .id(id)
+                .parentId(parentId)
+                .name("Name " + id)
+                .country("ABH")
+                .build());
+    }
+
+}
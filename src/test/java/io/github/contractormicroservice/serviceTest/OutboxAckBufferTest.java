@@ -0,0 +1,70 @@
+package io.github.contractormicroservice.serviceTest;
+
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxAckBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxAckBufferTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private OutboxAckBuffer ackBuffer;
+
+    @AfterEach
+    void tearDown() {
+        if (ackBuffer != null) {
+            ackBuffer.stop();
+        }
+    }
+
+    @Test
+    void add_shouldFlushInOneStatementWhenBatchSizeReached() {
+        ackBuffer = new OutboxAckBuffer(outboxEventRepository, 3, 60_000);
+        ackBuffer.start();
+
+        ackBuffer.add("id-1");
+        ackBuffer.add("id-2");
+        ackBuffer.add("id-3");
+
+        verify(outboxEventRepository, timeout(1000)).markAsProcessedBatch(List.of("id-1", "id-2", "id-3"));
+    }
+
+    @Test
+    void add_shouldFlushByTimeWhenBatchIsNotFull() {
+        ackBuffer = new OutboxAckBuffer(outboxEventRepository, 100, 50);
+        ackBuffer.start();
+
+        ackBuffer.add("id-1");
+
+        verify(outboxEventRepository, timeout(1000)).markAsProcessedBatch(List.of("id-1"));
+    }
+
+    @Test
+    void flush_shouldKeepIdsWhenUpdateFails() {
+        ackBuffer = new OutboxAckBuffer(outboxEventRepository, 100, 60_000);
+
+        when(outboxEventRepository.markAsProcessedBatch(any()))
+                .thenThrow(new IllegalStateException("DB is down"))
+                .thenReturn(1);
+
+        ackBuffer.add("id-1");
+
+        assertThrows(IllegalStateException.class, () -> ackBuffer.flush());
+        ackBuffer.flush();
+
+        verify(outboxEventRepository, times(2)).markAsProcessedBatch(List.of("id-1"));
+    }
+
+}
@@ -0,0 +1,84 @@
+package io.github.contractormicroservice.serviceTest;
+
+import io.github.contractormicroservice.repository.outbox.OutboxEventJdbcRepository.OutboxBacklog;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxMetricsTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private SimpleMeterRegistry registry;
+    private OutboxMetrics outboxMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        outboxMetrics = new OutboxMetrics(outboxEventRepository, registry);
+    }
+
+    @Test
+    void backlogGauges_shouldReportSizeAndOldestAgeWithOneQueryPerRefresh() {
+        when(outboxEventRepository.findBacklog()).thenReturn(new OutboxBacklog(42, LocalDateTime.now().minusSeconds(30)));
+
+        assertThat(registry.get("outbox.backlog.size").gauge().value()).isEqualTo(42);
+        assertThat(registry.get("outbox.backlog.oldest.age").gauge().value()).isCloseTo(30, within(2.0));
+
+        verify(outboxEventRepository, times(1)).findBacklog();
+    }
+
+    @Test
+    void backlogGauges_shouldReportZeroAgeForEmptyBacklog() {
+        when(outboxEventRepository.findBacklog()).thenReturn(new OutboxBacklog(0, null));
+
+        assertThat(registry.get("outbox.backlog.size").gauge().value()).isZero();
+        assertThat(registry.get("outbox.backlog.oldest.age").gauge().value()).isZero();
+    }
+
+    @Test
+    void backlogGauges_shouldReportNaNWhenBacklogCannotBeRead() {
+        when(outboxEventRepository.findBacklog()).thenThrow(new IllegalStateException("db is down"));
+
+        assertThat(registry.get("outbox.backlog.size").gauge().value()).isNaN();
+    }
+
+    @Test
+    void defaultPartitionGauge_shouldReportLastRecordedCount() {
+        assertThat(registry.get("outbox.partition.default.events").gauge().value()).isZero();
+
+        outboxMetrics.recordDefaultPartitionEvents(12);
+
+        assertThat(registry.get("outbox.partition.default.events").gauge().value()).isEqualTo(12);
+    }
+
+    @Test
+    void recordConfirm_shouldTagTimerByResult() {
+        long sentAt = System.nanoTime();
+
+        outboxMetrics.recordConfirm(sentAt, true, null);
+        outboxMetrics.recordConfirm(sentAt, true, null);
+        outboxMetrics.recordConfirm(sentAt, false, null);
+        outboxMetrics.recordConfirm(sentAt, false, new IllegalStateException("channel closed"));
+        outboxMetrics.recordConfirmTimeouts(3);
+
+        assertThat(registry.get("outbox.publish.confirm").tag("result", "ack").timer().count()).isEqualTo(2);
+        assertThat(registry.get("outbox.publish.confirm").tag("result", "nack").timer().count()).isEqualTo(1);
+        assertThat(registry.get("outbox.publish.confirm").tag("result", "error").timer().count()).isEqualTo(1);
+        assertThat(registry.get("outbox.publish.confirm.timeouts").counter().count()).isEqualTo(3);
+    }
+
+}
@@ -0,0 +1,127 @@
+package io.github.contractormicroservice.serviceTest;
+
+import io.github.contractormicroservice.repository.outbox.OutboxEventJdbcRepository.OutboxPartition;
+import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxMetrics;
+import io.github.contractormicroservice.service.OutboxPartitionMaintenance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxPartitionMaintenanceTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxMetrics outboxMetrics;
+
+    private OutboxPartitionMaintenance maintenance;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        maintenance = new OutboxPartitionMaintenance(outboxEventRepository, outboxMetrics);
+        today = LocalDate.now();
+    }
+
+    @Test
+    void maintainPartitions_shouldCreateMissingPartitionsAfterLastBound() {
+        when(outboxEventRepository.tryLockPartitionMaintenance(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findPartitions()).thenReturn(List.of(
+                partition(today.minusDays(1)),
+                partition(today),
+                partition(today.plusDays(1)),
+                partition(today.plusDays(5))));
+
+        maintenance.maintainPartitions();
+
+        verify(outboxEventRepository).createPartition(name(today.plusDays(5)), today.plusDays(5), today.plusDays(6));
+        verify(outboxEventRepository).createPartition(name(today.plusDays(7)), today.plusDays(7), today.plusDays(8));
+        verify(outboxEventRepository, times(3)).createPartition(anyString(), any(), any());
+        verify(outboxEventRepository, never()).removePartition(anyString(), anyBoolean());
+    }
+
+    @Test
+    void maintainPartitions_shouldNotCreatePartitionsForTodayWhenTheyAreMissing() {
+        when(outboxEventRepository.tryLockPartitionMaintenance(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findPartitions()).thenReturn(List.of());
+
+        maintenance.maintainPartitions();
+
+        verify(outboxEventRepository, never()).createPartition(eq(name(today)), any(), any());
+        verify(outboxEventRepository).createPartition(name(today.plusDays(1)), today.plusDays(1), today.plusDays(2));
+        verify(outboxEventRepository, times(7)).createPartition(anyString(), any(), any());
+    }
+
+    @Test
+    void maintainPartitions_shouldDropOnlyExpiredFullyProcessedPartitions() {
+        OutboxPartition legacy = new OutboxPartition("outbox_events_legacy", today.minusDays(30).atStartOfDay());
+        OutboxPartition expired = partition(today.minusDays(9));
+        OutboxPartition withBacklog = partition(today.minusDays(8));
+        OutboxPartition recent = partition(today.minusDays(6));
+        when(outboxEventRepository.tryLockPartitionMaintenance(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findPartitions()).thenReturn(List.of(legacy, expired, withBacklog, recent, partition(today.plusDays(8))));
+        when(outboxEventRepository.hasUnprocessedEvents(anyString())).thenAnswer(invocation -> withBacklog.name().equals(invocation.getArgument(0)));
+
+        maintenance.maintainPartitions();
+
+        verify(outboxEventRepository).removePartition(legacy.name(), true);
+        verify(outboxEventRepository).removePartition(expired.name(), true);
+        verify(outboxEventRepository, never()).removePartition(eq(withBacklog.name()), anyBoolean());
+        verify(outboxEventRepository, never()).removePartition(eq(recent.name()), anyBoolean());
+        verify(outboxEventRepository, never()).hasUnprocessedEvents(recent.name());
+    }
+
+    @Test
+    void maintainPartitions_shouldPurgeProcessedEventsFromDefaultPartitionAndReportRemaining() {
+        when(outboxEventRepository.tryLockPartitionMaintenance(anyLong())).thenReturn(true);
+        when(outboxEventRepository.findPartitions()).thenReturn(List.of(partition(today.plusDays(8))));
+        when(outboxEventRepository.purgeDefaultPartition(any())).thenReturn(5);
+        when(outboxEventRepository.countDefaultPartitionEvents()).thenReturn(3L);
+
+        maintenance.maintainPartitions();
+
+        verify(outboxEventRepository).purgeDefaultPartition(today.minusDays(7).atStartOfDay());
+        verify(outboxMetrics).recordDefaultPartitionEvents(3);
+        verify(outboxEventRepository, never()).removePartition(anyString(), anyBoolean());
+    }
+
+    @Test
+    void maintainPartitions_shouldSkipWhenAnotherInstanceHoldsLock() {
+        when(outboxEventRepository.tryLockPartitionMaintenance(anyLong())).thenReturn(false);
+
+        maintenance.maintainPartitions();
+
+        verify(outboxEventRepository, never()).findPartitions();
+        verify(outboxEventRepository, never()).createPartition(anyString(), any(), any());
+        verify(outboxEventRepository, never()).purgeDefaultPartition(any());
+    }
+
+    /**
+     * Секция на день, предшествующий upperDay
+     */
+    private static OutboxPartition partition(LocalDate upperDay) {
+        return new OutboxPartition(name(upperDay.minusDays(1)), upperDay.atStartOfDay());
+    }
+
+    private static String name(LocalDate day) {
+        return "outbox_events_p" + day.format(SUFFIX);
+    }
+
+}
@@ -4,20 +4,29 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.contractormicroservice.model.entity.OutboxEvent;
 import io.github.contractormicroservice.repository.outbox.OutboxEventRepository;
+import io.github.contractormicroservice.service.OutboxAckBuffer;
+import io.github.contractormicroservice.service.OutboxMetrics;
 import io.github.contractormicroservice.service.OutboxServiceImpl;
+import io.github.contractormicroservice.service.OutboxTransport;
+import io.github.contractormicroservice.service.RabbitOutboxTransport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,13 +44,20 @@ public class OutboxServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
-    @InjectMocks
+    @Mock
+    private OutboxAckBuffer ackBuffer;
+
+    @Mock
+    private OutboxMetrics outboxMetrics;
+
     private OutboxServiceImpl outboxService;
 
     private TestPayload testPayload;
 
     @BeforeEach
     void setUp() {
+        outboxService = new OutboxServiceImpl(outboxEventRepository, List.of(new RabbitOutboxTransport(rabbitTemplate)),
+                objectMapper, ackBuffer, outboxMetrics);
         testPayload = new TestPayload("test-name", "test-value");
     }
 
@@ -56,6 +72,21 @@ public class OutboxServiceTest {
                 testPayload, "exchange", "routing.key");
 
         verify(outboxEventRepository, times(1)).save(any(OutboxEvent.class));
+        verify(outboxEventRepository, never()).notifyNewEvents();
+
+    }
+
+    @Test
+    void saveOutboxEvent_shouldNotifyListenersWhenNotifyEnabled() throws JsonProcessingException {
+
+        ReflectionTestUtils.setField(outboxService, "notifyEnabled", true);
+        when(objectMapper.writeValueAsString(testPayload)).thenReturn("{}");
+
+        outboxService.saveOutboxEvent("contractor-123", "Contractor", "ContractorUpdated",
+                testPayload, "exchange", "routing.key");
+
+        verify(outboxEventRepository).save(any(OutboxEvent.class));
+        verify(outboxEventRepository).notifyNewEvents();
 
     }
 
@@ -91,7 +122,8 @@ public class OutboxServiceTest {
 
         List<OutboxEvent> events = new ArrayList<>();
         events.add(outboxEvent);
-        when(outboxEventRepository.findUnprocessedEvents()).thenReturn(events);
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(events);
+        invokeOnSameTemplate();
 
         outboxService.publishOutboxEvents();
 
@@ -101,7 +133,7 @@ public class OutboxServiceTest {
     @Test
     void publishOutboxEvents_shouldNotPublish() {
 
-        when(outboxEventRepository.findUnprocessedEvents()).thenReturn(new ArrayList<>());
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(new ArrayList<>());
 
         outboxService.publishOutboxEvents();
 
@@ -110,5 +142,300 @@ public class OutboxServiceTest {
     }
 
 
+    @Test
+    void publishOutboxEvents_shouldMarkConfirmedEventsAsProcessed() {
+
+        OutboxEvent first = testEvent("test-1");
+        OutboxEvent second = testEvent("test-2");
+
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(List.of(first, second));
+        invokeOnSameTemplate();
+        confirmAll(true);
+
+        outboxService.publishOutboxEvents();
+
+        verify(rabbitTemplate, times(2)).convertAndSend(anyString(), anyString(), anyString(), any(), any(CorrelationData.class));
+        verify(ackBuffer).add(first.getId().toString());
+        verify(ackBuffer).add(second.getId().toString());
+        verify(ackBuffer).flush();
+        verify(outboxEventRepository, never()).releaseClaims(any(), anyString());
+    }
+
+    @Test
+    void publishOutboxEvents_shouldNotPublishNextEventsOfRejectedAggregate() {
+
+        OutboxEvent rejected = testEvent("test-1");
+        OutboxEvent sameAggregate = testEvent("test-1");
+        OutboxEvent otherAggregate = testEvent("test-2");
+
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(List.of(rejected, sameAggregate, otherAggregate));
+        invokeOnSameTemplate();
+        confirmAll(false);
+
+        outboxService.publishOutboxEvents();
+
+        verify(rabbitTemplate, times(2)).convertAndSend(anyString(), anyString(), anyString(), any(), any(CorrelationData.class));
+        verify(ackBuffer, never()).add(anyString());
+        verify(outboxEventRepository).releaseClaims(eq(List.of(rejected.getId().toString(), sameAggregate.getId().toString(),
+                otherAggregate.getId().toString())), anyString());
+    }
+
+    @Test
+    void publishOutboxEvents_shouldRouteEventsToTransportOfDestination() {
+
+        OutboxTransport kafkaTransport = mock(OutboxTransport.class);
+        when(kafkaTransport.supports("kafka-topic")).thenReturn(true);
+        when(kafkaTransport.execute(any())).thenAnswer(invocation ->
+                invocation.<Function<OutboxTransport.Sender, ?>>getArgument(0)
+                        .apply(event -> CompletableFuture.completedFuture(new OutboxTransport.Confirm(true, null))));
+        outboxService = new OutboxServiceImpl(outboxEventRepository, List.of(kafkaTransport, new RabbitOutboxTransport(rabbitTemplate)),
+                objectMapper, ackBuffer, outboxMetrics);
+
+        OutboxEvent toKafka = testEvent("test-1");
+        toKafka.setExchange("kafka-topic");
+        OutboxEvent toRabbit = testEvent("test-2");
+
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(List.of(toKafka, toRabbit));
+        invokeOnSameTemplate();
+        confirmAll(true);
+
+        outboxService.publishOutboxEvents();
+
+        verify(kafkaTransport, times(1)).execute(any());
+        verify(rabbitTemplate, times(1)).convertAndSend(eq("test-exchange"), anyString(), anyString(), any(), any(CorrelationData.class));
+        verify(ackBuffer).add(toKafka.getId().toString());
+        verify(ackBuffer).add(toRabbit.getId().toString());
+        verify(outboxEventRepository, never()).releaseClaims(any(), anyString());
+    }
+
+    @Test
+    void publishOutboxEvents_shouldSendOnlyLatestSnapshotWhenCoalescing() {
+
+        ReflectionTestUtils.setField(outboxService, "coalesceEnabled", true);
+        OutboxEvent created = testEvent("test-1");
+        created.setEventType("CREATED");
+        OutboxEvent firstUpdate = testEvent("test-1", "UPDATED");
+        OutboxEvent secondUpdate = testEvent("test-1", "UPDATED");
+        OutboxEvent lastUpdate = testEvent("test-1", "UPDATED");
+        OutboxEvent otherAggregate = testEvent("test-2", "UPDATED");
+
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(created, firstUpdate, secondUpdate, otherAggregate, lastUpdate));
+        invokeOnSameTemplate();
+        confirmAll(true);
+
+        outboxService.publishOutboxEvents();
+
+        verify(rabbitTemplate, times(3)).convertAndSend(anyString(), anyString(), anyString(), any(), any(CorrelationData.class));
+        for (OutboxEvent event : List.of(created, firstUpdate, secondUpdate, otherAggregate, lastUpdate)) {
+            verify(ackBuffer).add(event.getId().toString());
+        }
+        verify(outboxMetrics).recordCoalesced(2);
+        verify(outboxEventRepository, never()).releaseClaims(any(), anyString());
+    }
+
+    @Test
+    void publishOutboxEvents_shouldReleaseCoalescedEventsWhenLatestIsRejected() {
+
+        ReflectionTestUtils.setField(outboxService, "coalesceEnabled", true);
+        OutboxEvent firstUpdate = testEvent("test-1", "UPDATED");
+        OutboxEvent lastUpdate = testEvent("test-1", "UPDATED");
+
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(List.of(firstUpdate, lastUpdate));
+        invokeOnSameTemplate();
+        confirmAll(false);
+
+        outboxService.publishOutboxEvents();
+
+        verify(rabbitTemplate, times(1)).convertAndSend(anyString(), anyString(), anyString(), any(), any(CorrelationData.class));
+        verify(ackBuffer, never()).add(anyString());
+        verify(outboxEventRepository).releaseClaims(eq(List.of(firstUpdate.getId().toString(), lastUpdate.getId().toString())), anyString());
+    }
+
+    @Test
+    void publishOutboxEvents_shouldPublishLanesInParallelKeepingAggregateOrder() {
+
+        List<List<OutboxEvent>> sessions = Collections.synchronizedList(new ArrayList<>());
+        OutboxTransport transport = mock(OutboxTransport.class);
+        when(transport.supports(anyString())).thenReturn(true);
+        when(transport.execute(any())).thenAnswer(invocation -> {
+            List<OutboxEvent> session = Collections.synchronizedList(new ArrayList<>());
+            sessions.add(session);
+            return invocation.<Function<OutboxTransport.Sender, ?>>getArgument(0).apply(event -> {
+                session.add(event);
+                return CompletableFuture.completedFuture(new OutboxTransport.Confirm(true, null));
+            });
+        });
+        outboxService = new OutboxServiceImpl(outboxEventRepository, List.of(transport), objectMapper, ackBuffer, outboxMetrics);
+        ReflectionTestUtils.setField(outboxService, "lanes", 4);
+        outboxService.init();
+
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            events.add(testEvent("test-" + (i % 10)));
+        }
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(events);
+
+        try {
+            outboxService.publishOutboxEvents();
+        } finally {
+            outboxService.destroy();
+        }
+
+        assertTrue(sessions.size() > 1);
+        for (List<OutboxEvent> session : sessions) {
+            for (OutboxEvent event : session) {
+                List<OutboxEvent> sameAggregate = events.stream().filter(e -> e.getAggregateId().equals(event.getAggregateId())).toList();
+                assertEquals(sameAggregate, session.stream().filter(e -> e.getAggregateId().equals(event.getAggregateId())).toList());
+            }
+        }
+        assertEquals(40, sessions.stream().mapToInt(List::size).sum());
+        verify(ackBuffer, times(40)).add(anyString());
+        verify(outboxEventRepository, never()).releaseClaims(any(), anyString());
+    }
+
+    @Test
+    void publishOutboxEvents_shouldWaitForConfirmHandlingCompletedOnAnotherThread() {
+
+        List<CompletableFuture<OutboxTransport.Confirm>> confirms = Collections.synchronizedList(new ArrayList<>());
+        OutboxTransport transport = mock(OutboxTransport.class);
+        when(transport.supports(anyString())).thenReturn(true);
+        when(transport.execute(any())).thenAnswer(invocation -> {
+            Object sent = invocation.<Function<OutboxTransport.Sender, ?>>getArgument(0).apply(event -> {
+                CompletableFuture<OutboxTransport.Confirm> confirm = new CompletableFuture<>();
+                confirms.add(confirm);
+                return confirm;
+            });
+            // Брокер подтверждает после возврата из publishLanes, обработка подтверждения медленная
+            Thread broker = new Thread(() -> {
+                sleep(50);
+                confirms.forEach(confirm -> confirm.complete(new OutboxTransport.Confirm(true, null)));
+            });
+            broker.start();
+            return sent;
+        });
+        doAnswer(invocation -> {
+            sleep(200);
+            return null;
+        }).when(outboxMetrics).recordConfirm(anyLong(), anyBoolean(), any());
+        outboxService = new OutboxServiceImpl(outboxEventRepository, List.of(transport), objectMapper, ackBuffer, outboxMetrics);
+
+        OutboxEvent event = testEvent("test-1");
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(List.of(event));
+
+        outboxService.publishOutboxEvents();
+
+        InOrder inOrder = inOrder(ackBuffer);
+        inOrder.verify(ackBuffer).add(event.getId().toString());
+        inOrder.verify(ackBuffer).flush();
+        verify(outboxEventRepository, never()).releaseClaims(any(), anyString());
+        verify(outboxEventRepository, never()).recordFailures(any(), anyInt(), anyLong(), anyLong());
+    }
+
+    @Test
+    void publishOutboxEvents_shouldRecordFirstFailedEventOfAggregateForRetry() {
+
+        OutboxEvent rejected = testEvent("test-1");
+        rejected.setAttempts(9);
+        OutboxEvent sameAggregate = testEvent("test-1");
+        sameAggregate.setCreatedAt(rejected.getCreatedAt().plusSeconds(1));
+        OutboxEvent otherAggregate = testEvent("test-2");
+
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(List.of(rejected, sameAggregate, otherAggregate));
+        invokeOnSameTemplate();
+        confirmAll(false);
+
+        outboxService.publishOutboxEvents();
+
+        verify(outboxEventRepository).recordFailures(argThat(failures -> failures.size() == 2
+                && failures.stream().anyMatch(failure -> failure.id().equals(rejected.getId().toString())
+                        && failure.error().equals("Rejected by broker: nack"))
+                && failures.stream().anyMatch(failure -> failure.id().equals(otherAggregate.getId().toString()))),
+                eq(10), eq(1000L), eq(600000L));
+        verify(outboxMetrics).recordDeadLettered(1);
+    }
+
+    @Test
+    void publishOutboxEvents_shouldRecordFailureWhenNoTransportSupportsDestination() {
+
+        outboxService = new OutboxServiceImpl(outboxEventRepository, List.of(), objectMapper, ackBuffer, outboxMetrics);
+        OutboxEvent event = testEvent("test-1");
+
+        when(outboxEventRepository.claimEvents(anyString(), anyInt(), anyInt())).thenReturn(List.of(event));
+
+        outboxService.publishOutboxEvents();
+
+        verify(outboxEventRepository).recordFailures(argThat(failures -> failures.size() == 1
+                && failures.get(0).id().equals(event.getId().toString())
+                && failures.get(0).error().equals("No transport for destination test-exchange")),
+                eq(10), eq(1000L), eq(600000L));
+        verify(outboxEventRepository).releaseClaims(eq(List.of(event.getId().toString())), anyString());
+    }
+
+    @Test
+    void publishEvents_shouldPublishOnlyClaimedEventsAndReleaseRejected() {
+
+        OutboxEvent rejected = testEvent("test-1");
+        OutboxEvent leftToPolling = testEvent("test-2");
+        List<String> ids = List.of(rejected.getId().toString(), leftToPolling.getId().toString());
+
+        when(outboxEventRepository.claimEventsByIds(eq(ids), anyString(), anyInt())).thenReturn(List.of(rejected));
+        invokeOnSameTemplate();
+        confirmAll(false);
+
+        outboxService.publishEvents(ids);
+
+        verify(rabbitTemplate, times(1)).convertAndSend(anyString(), anyString(), anyString(), any(), any(CorrelationData.class));
+        verify(outboxEventRepository).recordFailures(argThat(failures -> failures.size() == 1
+                && failures.get(0).id().equals(rejected.getId().toString())), eq(10), eq(1000L), eq(600000L));
+        verify(outboxEventRepository).releaseClaims(eq(List.of(rejected.getId().toString())), anyString());
+        verify(ackBuffer, never()).add(anyString());
+    }
+
+    /**
+     * RabbitTemplate.invoke выполняет переданные операции на том же шаблоне (как и настоящий RabbitTemplate)
+     */
+    private void invokeOnSameTemplate() {
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitTemplate));
+    }
+
+    /**
+     * Брокер подтверждает (ack) или отклоняет (nack) каждое отправленное сообщение
+     */
+    private void confirmAll(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(4);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), anyString(), any(), any(CorrelationData.class));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private OutboxEvent testEvent(String aggregateId) {
+        return testEvent(aggregateId, "TestEvent");
+    }
+
+    private OutboxEvent testEvent(String aggregateId, String eventType) {
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .aggregateType("Test")
+                .payload("test-payload")
+                .exchange("test-exchange")
+                .routingKey("test.routing")
+                .processed(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
     private record TestPayload(String name, String value) {}
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package io.github.contractormicroservice.serviceTest;
+
+import io.github.contractormicroservice.service.PgOutputDecoder;
+import io.github.contractormicroservice.service.PgOutputDecoder.Begin;
+import io.github.contractormicroservice.service.PgOutputDecoder.Commit;
+import io.github.contractormicroservice.service.PgOutputDecoder.Insert;
+import io.github.contractormicroservice.service.PgOutputDecoder.Relation;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Сообщения получены из pg_logical_slot_peek_binary_changes (pgoutput, proto_version 1) для вставки
+ * одной строки в секционированную outbox_events с publish_via_partition_root = true
+ */
+public class PgOutputDecoderTest {
+
+    private static final String BEGIN = "420000000001eeb8c800030100fd61e02500000319";
+
+    private static final String RELATION = "52000040127075626c6963006f7574626f785f6576656e74730064000c0169640000000019ffffffff"
+            + "006167677265676174655f6964000000041300000103006167677265676174655f74797065000000041300000068006576656e745f7479"
+            + "7065000000041300000068007061796c6f61640000000019ffffffff00726f7574696e675f6b65790000000413000001030065786368"
+            + "616e67655f6e616d650000000413000001030070726f6365737365640000000010ffffffff01637265617465645f6174000000045aff"
+            + "ffffff0070726f6365737365645f6174000000045affffffff00636c61696d65645f6279000000041300000103006c656173655f6578"
+            + "70697265735f6174000000045affffffff";
+
+    private static final String INSERT = "49000040124e000c740000002437643866366132652d336331622d346535612d396630642d3262"
+            + "366338653461316633357400000003432d31740000000a436f6e74726163746f72740000000755504441544544740000000c7b226964"
+            + "223a22432d31227d7400000008746573742e6b6579740000000d746573745f65786368616e6765740000000166740000001a32303236"
+            + "2d31302d31372031303a31353a33302e3132333435366e6e6e";
+
+    private static final String COMMIT = "43000000000001eeb8c80000000001eeb8f800030100fd61e025";
+
+    private final PgOutputDecoder decoder = new PgOutputDecoder();
+
+    @Test
+    void decode_shouldReadInsertWithColumnsOfPrecedingRelation() {
+        assertThat(decoder.decode(message(BEGIN))).isEqualTo(new Begin(0x1eeb8c8L));
+
+        Relation relation = (Relation) decoder.decode(message(RELATION));
+        assertThat(relation.namespace()).isEqualTo("public");
+        assertThat(relation.name()).isEqualTo("outbox_events");
+        assertThat(relation.columns()).startsWith("id", "aggregate_id", "aggregate_type", "event_type", "payload");
+
+        Insert insert = (Insert) decoder.decode(message(INSERT));
+        assertThat(insert.relation()).isSameAs(relation);
+        assertThat(insert.values())
+                .containsEntry("id", "7d8f6a2e-3c1b-4e5a-9f0d-2b6c8e4a1f35")
+                .containsEntry("aggregate_id", "C-1")
+                .containsEntry("event_type", "UPDATED")
+                .containsEntry("payload", "{\"id\":\"C-1\"}")
+                .containsEntry("routing_key", "test.key")
+                .containsEntry("exchange_name", "test_exchange")
+                .containsEntry("processed", "f")
+                .containsEntry("created_at", "2026-10-17 10:15:30.123456")
+                .containsEntry("processed_at", null);
+
+        assertThat(decoder.decode(message(COMMIT))).isEqualTo(new Commit(0x1eeb8c8L, 0x1eeb8f8L));
+    }
+
+    @Test
+    void decode_shouldRejectInsertOfUnknownRelation() {
+        assertThrows(IllegalStateException.class, () -> decoder.decode(message(INSERT)));
+    }
+
+    @Test
+    void decode_shouldSkipUnusedMessages() {
+        assertThat(decoder.decode(ByteBuffer.wrap(new byte[]{'T', 0, 0, 0, 0}))).isNull();
+    }
+
+    private static ByteBuffer message(String hex) {
+        return ByteBuffer.wrap(HexFormat.of().parseHex(hex));
+    }
+
+}